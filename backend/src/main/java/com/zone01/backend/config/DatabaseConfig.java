@@ -1,13 +1,25 @@
 package com.zone01.backend.config;
 
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
 import org.springframework.jdbc.core.JdbcTemplate;
 
+import com.zone01.backend.service.NotificationPartitionService;
+import com.zone01.backend.util.ExcerptUtil;
+
 @Configuration
 public class DatabaseConfig {
 
+    private static final Logger log = LoggerFactory.getLogger(DatabaseConfig.class);
+
     @Bean
     public CommandLineRunner dropNotificationConstraint(JdbcTemplate jdbcTemplate) {
         return args -> {
@@ -19,4 +31,136 @@ public class DatabaseConfig {
             }
         };
     }
+
+    @Bean
+    public CommandLineRunner backfillPostExcerpts(JdbcTemplate jdbcTemplate) {
+        return args -> {
+            int total = 0;
+            while (true) {
+                List<Object[]> batch = jdbcTemplate.query(
+                        "SELECT id, content FROM posts WHERE excerpt IS NULL ORDER BY id LIMIT 500",
+                        (rs, rowNum) -> {
+                            String content = rs.getString("content");
+                            return new Object[] { ExcerptUtil.excerpt(content), ExcerptUtil.isTruncated(content),
+                                    rs.getLong("id") };
+                        });
+                if (batch.isEmpty()) {
+                    break;
+                }
+                jdbcTemplate.batchUpdate("UPDATE posts SET excerpt = ?, excerpt_truncated = ? WHERE id = ?", batch);
+                total += batch.size();
+            }
+            if (total > 0) {
+                log.info("Backfilled excerpts for {} posts", total);
+            }
+        };
+    }
+
+    @Bean
+    public CommandLineRunner createPostSearchIndex(JdbcTemplate jdbcTemplate) {
+        return args -> {
+            // Not mapped on the entity: PostgreSQL maintains it from title and content
+            jdbcTemplate.execute("ALTER TABLE posts ADD COLUMN IF NOT EXISTS search_vector tsvector "
+                    + "GENERATED ALWAYS AS (setweight(to_tsvector('english', coalesce(title, '')), 'A') "
+                    + "|| setweight(to_tsvector('english', coalesce(content, '')), 'B')) STORED");
+            jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_posts_search_vector ON posts USING GIN (search_vector)");
+        };
+    }
+
+    @Bean
+    public SmartInitializingSingleton adoptIdSequences(JdbcTemplate jdbcTemplate) {
+        // Not a runner: those only run after the web server and schedulers have started, and an insert
+        // before this would draw its id block from a sequence still below the existing rows. Singletons,
+        // including the entity manager factory and its schema update, are all created by now
+        return () -> {
+            // Hibernate takes ids from these sequences 50 at a time so inserts can be batched; native
+            // inserts draw a single value through the column default, which can never fall in a block
+            // already handed out
+            for (String table : List.of("notifications", "likes", "comments", "subscriptions")) {
+                String sequence = table + "_seq";
+                String identity = jdbcTemplate.queryForObject("SELECT is_identity FROM information_schema.columns "
+                        + "WHERE table_name = ? AND column_name = 'id'", String.class, table);
+                if ("YES".equals(identity)) {
+                    jdbcTemplate.execute("ALTER TABLE " + table + " ALTER COLUMN id DROP IDENTITY");
+                }
+                // Existing rows keep their ids, so the next block must start above them; an empty table
+                // still moves past the start value so that no block reaches below 1
+                jdbcTemplate.queryForList("SELECT setval('" + sequence + "', m.id) FROM (SELECT coalesce(max(id), 1) "
+                        + "AS id FROM " + table + ") m WHERE m.id >= (SELECT last_value FROM " + sequence + ")");
+                jdbcTemplate.execute("ALTER TABLE " + table + " ALTER COLUMN id SET DEFAULT nextval('" + sequence
+                        + "')");
+            }
+        };
+    }
+
+    @Bean
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public CommandLineRunner partitionNotifications(NotificationPartitionService notificationPartitionService) {
+        return args -> {
+            // First, so the other runners index and alter the partitioned table rather than the one it replaces
+            notificationPartitionService.partitionTable();
+            notificationPartitionService.maintain();
+        };
+    }
+
+    @Bean
+    public CommandLineRunner addNotificationAggregateColumns(JdbcTemplate jdbcTemplate) {
+        return args -> {
+            // Schema update does not alter the partitioned table, so columns mapped after it was partitioned
+            // are added here
+            jdbcTemplate.execute("ALTER TABLE notifications ADD COLUMN IF NOT EXISTS actor_count integer NOT NULL DEFAULT 1");
+            jdbcTemplate.execute("ALTER TABLE notifications ADD COLUMN IF NOT EXISTS recent_actors varchar(255)[]");
+            boolean hasActivity = jdbcTemplate.queryForObject("SELECT EXISTS (SELECT 1 FROM information_schema.columns "
+                    + "WHERE table_name = 'notifications' AND column_name = 'last_activity_at')", Boolean.class);
+            if (!hasActivity) {
+                jdbcTemplate.execute("ALTER TABLE notifications ADD COLUMN last_activity_at timestamp(6)");
+                jdbcTemplate.execute("UPDATE notifications SET last_activity_at = created_at");
+                jdbcTemplate.execute("ALTER TABLE notifications ALTER COLUMN last_activity_at SET NOT NULL");
+            }
+            // Who an aggregate already counts; only read and written by native statements, so not mapped
+            jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS notification_actors (notification_id bigint NOT NULL, "
+                    + "actor_id bigint NOT NULL, created_at timestamp(6) NOT NULL, PRIMARY KEY (notification_id, actor_id))");
+            jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_notification_actors_created_at "
+                    + "ON notification_actors (created_at)");
+        };
+    }
+
+    @Bean
+    public CommandLineRunner createOutboxPendingIndex(JdbcTemplate jdbcTemplate) {
+        return args -> {
+            // Partial, so the dispatcher's claim stays an index scan however many processed rows are retained
+            jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_outbox_events_pending ON outbox_events (id) "
+                    + "WHERE processed_at IS NULL");
+        };
+    }
+
+    @Bean
+    public CommandLineRunner createJobQueueIndexes(JdbcTemplate jdbcTemplate) {
+        return args -> {
+            // Claim order over queued jobs only, and lease expiry over running ones
+            jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_jobs_ready ON jobs (priority DESC, run_at, id) "
+                    + "WHERE status = 'QUEUED'");
+            jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_jobs_lease ON jobs (locked_until) "
+                    + "WHERE status = 'RUNNING'");
+        };
+    }
+
+    @Bean
+    public CommandLineRunner createUnreadNotificationsIndex(JdbcTemplate jdbcTemplate) {
+        return args -> {
+            // Mark-all-read touches only a recipient's unread rows, however many read ones they keep
+            jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_notifications_unread ON notifications (recipient_id) "
+                    + "WHERE is_read = false");
+        };
+    }
+
+    @Bean
+    public CommandLineRunner createNotificationInboxIndex(JdbcTemplate jdbcTemplate) {
+        return args -> {
+            // Keyset order of the inbox, so a page is a short range scan in each partition it reaches
+            jdbcTemplate.execute("DROP INDEX IF EXISTS idx_notifications_inbox");
+            jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_notifications_inbox_activity ON notifications "
+                    + "(recipient_id, last_activity_at DESC, id DESC)");
+        };
+    }
 }
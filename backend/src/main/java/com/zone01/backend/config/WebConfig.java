@@ -2,12 +2,31 @@ package com.zone01.backend.config;
 
 import org.springframework.context.annotation.Configuration;
 import org.springframework.lang.NonNull;
+import org.springframework.orm.jpa.support.OpenEntityManagerInViewInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
+import jakarta.persistence.EntityManagerFactory;
+
 @Configuration
 public class WebConfig implements WebMvcConfigurer {
 
+    private final EntityManagerFactory entityManagerFactory;
+
+    public WebConfig(EntityManagerFactory entityManagerFactory) {
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    // Replaces spring.jpa.open-in-view: an open entity manager pins a pooled connection for as long as
+    // the request lives, which for the notification stream is until the client goes away
+    @Override
+    public void addInterceptors(@NonNull InterceptorRegistry registry) {
+        OpenEntityManagerInViewInterceptor interceptor = new OpenEntityManagerInViewInterceptor();
+        interceptor.setEntityManagerFactory(entityManagerFactory);
+        registry.addWebRequestInterceptor(interceptor).excludePathPatterns("/api/notifications/stream");
+    }
+
     @Override
     public void addResourceHandlers(@NonNull ResourceHandlerRegistry registry) {
         registry.addResourceHandler("/uploads/**")
@@ -5,6 +5,9 @@ import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
 
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
@@ -13,13 +16,20 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import com.zone01.backend.dto.PostDTO;
 import com.zone01.backend.dto.ReportDTO;
 import com.zone01.backend.dto.UserDTO;
 import com.zone01.backend.entity.User;
+import com.zone01.backend.job.JobWorker;
 import com.zone01.backend.security.AppUserDetails;
+import com.zone01.backend.service.AdminExportService;
+import com.zone01.backend.service.LikedPostsCache;
+import com.zone01.backend.service.NotificationStream;
+import com.zone01.backend.service.OutboxDispatcher;
 import com.zone01.backend.service.PostService;
 import com.zone01.backend.service.ReportService;
 import com.zone01.backend.service.UserService;
@@ -32,11 +42,23 @@ public class AdminController {
     private final UserService userService;
     private final PostService postService;
     private final ReportService reportService;
-
-    public AdminController(UserService userService, PostService postService, ReportService reportService) {
+    private final LikedPostsCache likedPostsCache;
+    private final AdminExportService adminExportService;
+    private final OutboxDispatcher outboxDispatcher;
+    private final JobWorker jobWorker;
+    private final NotificationStream notificationStream;
+
+    public AdminController(UserService userService, PostService postService, ReportService reportService,
+            LikedPostsCache likedPostsCache, AdminExportService adminExportService,
+            OutboxDispatcher outboxDispatcher, JobWorker jobWorker, NotificationStream notificationStream) {
         this.userService = userService;
         this.postService = postService;
         this.reportService = reportService;
+        this.likedPostsCache = likedPostsCache;
+        this.adminExportService = adminExportService;
+        this.outboxDispatcher = outboxDispatcher;
+        this.jobWorker = jobWorker;
+        this.notificationStream = notificationStream;
     }
 
     @GetMapping("/users")
@@ -49,6 +71,12 @@ public class AdminController {
         return ResponseEntity.ok(userDTOs);
     }
 
+    @GetMapping("/users/export")
+    public ResponseEntity<StreamingResponseBody> exportUsers(@RequestParam(defaultValue = "ndjson") String format) {
+        AdminExportService.Format exportFormat = AdminExportService.Format.parse(format);
+        return export("users", exportFormat, out -> adminExportService.writeUsers(exportFormat, out));
+    }
+
     @GetMapping("/stats")
     public ResponseEntity<Map<String, Object>> getDashboardStats() {
         Map<String, Object> stats = new HashMap<>();
@@ -62,6 +90,26 @@ public class AdminController {
         return ResponseEntity.ok(stats);
     }
 
+    @GetMapping("/stats/liked-posts-cache")
+    public ResponseEntity<Map<String, Object>> getLikedPostsCacheStats() {
+        return ResponseEntity.ok(likedPostsCache.stats());
+    }
+
+    @GetMapping("/stats/outbox")
+    public ResponseEntity<Map<String, Object>> getOutboxStats() {
+        return ResponseEntity.ok(outboxDispatcher.stats());
+    }
+
+    @GetMapping("/stats/jobs")
+    public ResponseEntity<Map<String, Object>> getJobStats() {
+        return ResponseEntity.ok(jobWorker.stats());
+    }
+
+    @GetMapping("/stats/notification-stream")
+    public ResponseEntity<Map<String, Object>> getNotificationStreamStats() {
+        return ResponseEntity.ok(notificationStream.stats());
+    }
+
     @DeleteMapping("/users/{userId}")
     public ResponseEntity<Map<String, String>> deleteUser(
             @PathVariable Long userId,
@@ -108,6 +156,12 @@ public class AdminController {
         return ResponseEntity.ok(postService.getAllPostsForAdmin());
     }
 
+    @GetMapping("/posts/export")
+    public ResponseEntity<StreamingResponseBody> exportPosts(@RequestParam(defaultValue = "ndjson") String format) {
+        AdminExportService.Format exportFormat = AdminExportService.Format.parse(format);
+        return export("posts", exportFormat, out -> adminExportService.writePosts(exportFormat, out));
+    }
+
     @DeleteMapping("/posts/{postId}")
     public ResponseEntity<Map<String, String>> deletePost(@PathVariable Long postId) {
         postService.deletePostAsAdmin(postId);
@@ -144,4 +198,13 @@ public class AdminController {
         com.zone01.backend.entity.Report report = reportService.updateStatus(reportId, reportStatus);
         return ResponseEntity.ok(new ReportDTO(report));
     }
+
+    private ResponseEntity<StreamingResponseBody> export(String name, AdminExportService.Format format,
+            StreamingResponseBody body) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(format.contentType() + ";charset=UTF-8"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename(name + "." + format.extension()).build().toString())
+                .body(body);
+    }
 }
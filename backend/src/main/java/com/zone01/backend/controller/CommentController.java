@@ -2,6 +2,7 @@ package com.zone01.backend.controller;
 
 import java.util.List;
 
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
@@ -13,12 +14,14 @@ import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import com.zone01.backend.dto.CommentDTO;
 import com.zone01.backend.entity.Comment;
 import com.zone01.backend.entity.User;
 import com.zone01.backend.security.AppUserDetails;
 import com.zone01.backend.service.CommentService;
+import com.zone01.backend.util.ResourceVersion;
 
 @RestController
 @RequestMapping("/api/comments")
@@ -42,11 +45,13 @@ public class CommentController {
     }
 
     @GetMapping("/post/{postId}")
-    public ResponseEntity<List<CommentDTO>> getCommentsByPost(@PathVariable Long postId) {
-        List<Comment> comments = commentService.getCommentsByPost(postId);
-        List<CommentDTO> commentDTOs = comments.stream().map(CommentDTO::new).toList();
-
-        return ResponseEntity.ok(commentDTOs);
+    public ResponseEntity<List<CommentDTO>> getCommentsByPost(@PathVariable Long postId, WebRequest request) {
+        ResourceVersion version = commentService.getCommentsVersion(postId);
+        if (request.checkNotModified(version.etag())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).headers(version.headers()).build();
+        }
+        return ResponseEntity.ok().headers(version.headers())
+                .body(commentService.getCommentsByPostDTO(postId));
     }
 
     @PreAuthorize("isAuthenticated()")
@@ -1,44 +1,86 @@
 package com.zone01.backend.controller;
 
-import java.util.List;
 import java.util.Map;
 
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import com.zone01.backend.dto.CursorPageDTO;
 import com.zone01.backend.dto.NotificationDTO;
+import com.zone01.backend.dto.NotificationIdsDTO;
 import com.zone01.backend.entity.Notification;
 import com.zone01.backend.security.AppUserDetails;
 import com.zone01.backend.service.NotificationService;
+import com.zone01.backend.service.NotificationStream;
+import com.zone01.backend.service.StreamTicketService;
 
 @RestController
 @RequestMapping("/api/notifications")
 public class NotificationController {
 
     private final NotificationService notificationService;
+    private final NotificationStream notificationStream;
+    private final StreamTicketService streamTicketService;
 
-    public NotificationController(NotificationService notificationService) {
+    public NotificationController(NotificationService notificationService, NotificationStream notificationStream,
+            StreamTicketService streamTicketService) {
         this.notificationService = notificationService;
+        this.notificationStream = notificationStream;
+        this.streamTicketService = streamTicketService;
+    }
+
+    @PostMapping("/stream/ticket")
+    public ResponseEntity<Map<String, String>> streamTicket(@AuthenticationPrincipal AppUserDetails auth) {
+        if (auth == null || auth.getUser() == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noStore())
+                .body(Map.of("ticket", streamTicketService.issue(auth.getUser())));
+    }
+
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> stream(
+            @AuthenticationPrincipal AppUserDetails auth,
+            @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId,
+            @RequestParam(value = "lastEventId", required = false) Long resumeFrom) {
+        if (auth == null || auth.getUser() == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        // A ticket works once, so clients reconnect with a new stream and pass the last id themselves
+        if (lastEventId == null) {
+            lastEventId = resumeFrom;
+        }
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noStore())
+                // Reverse proxies must pass events through as they are written
+                .header("X-Accel-Buffering", "no")
+                .body(notificationStream.connect(auth.getUser(), lastEventId));
     }
 
     @GetMapping
-    public ResponseEntity<List<NotificationDTO>> getNotifications(@AuthenticationPrincipal AppUserDetails auth) {
+    public ResponseEntity<CursorPageDTO<NotificationDTO>> getNotifications(
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "limit", defaultValue = "" + NotificationService.DEFAULT_PAGE_SIZE) int limit,
+            @AuthenticationPrincipal AppUserDetails auth) {
         if (auth == null || auth.getUser() == null) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
         }
 
-        List<NotificationDTO> notifications = notificationService.getNotifications(auth.getUser())
-                .stream()
-                .map(NotificationDTO::new)
-                .toList();
-        return ResponseEntity.ok(notifications);
+        return ResponseEntity.ok(notificationService.getNotificationsPage(auth.getUser(), cursor, limit));
     }
 
     @PatchMapping("/{notificationId}/read")
@@ -65,13 +107,24 @@ public class NotificationController {
         return ResponseEntity.ok(new NotificationDTO(notification));
     }
 
+    @PostMapping("/read")
+    public ResponseEntity<Map<String, Long>> markAsRead(
+            @jakarta.validation.Valid @RequestBody NotificationIdsDTO request,
+            @AuthenticationPrincipal AppUserDetails auth) {
+        if (auth == null || auth.getUser() == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        long updated = notificationService.markAsRead(request.getIds(), auth.getUser());
+        return ResponseEntity.ok(Map.of("updated", updated));
+    }
+
     @PostMapping("/read-all")
-    public ResponseEntity<Map<String, String>> markAllAsRead(@AuthenticationPrincipal AppUserDetails auth) {
+    public ResponseEntity<Map<String, Object>> markAllAsRead(@AuthenticationPrincipal AppUserDetails auth) {
         if (auth == null || auth.getUser() == null) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
         }
-        notificationService.markAllAsRead(auth.getUser());
-        return ResponseEntity.ok(Map.of("message", "Notifications marked as read"));
+        long updated = notificationService.markAllAsRead(auth.getUser());
+        return ResponseEntity.ok(Map.of("message", "Notifications marked as read", "updated", updated));
     }
 
     @GetMapping("/unread-count")
@@ -2,6 +2,7 @@ package com.zone01.backend.controller;
 
 import java.util.List;
 
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
@@ -14,13 +15,20 @@ import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
+import com.zone01.backend.dto.CursorPageDTO;
 import com.zone01.backend.dto.PostDTO;
+import com.zone01.backend.dto.PostSummaryDTO;
 import com.zone01.backend.entity.Post;
+import com.zone01.backend.entity.Role;
 import com.zone01.backend.entity.User;
+import com.zone01.backend.exception.UnauthorizedActionException;
 import com.zone01.backend.security.AppUserDetails;
 import com.zone01.backend.service.PostService;
 import com.zone01.backend.service.FileStorageService;
+import com.zone01.backend.service.PublicTimelineSnapshot;
+import com.zone01.backend.util.ResourceVersion;
 
 @RestController
 @RequestMapping("/api/posts")
@@ -29,35 +37,91 @@ public class PostController {
 
     private final PostService postService;
     private final FileStorageService fileStorageService;
+    private final PublicTimelineSnapshot publicTimelineSnapshot;
 
-    public PostController(PostService postService, FileStorageService fileStorageService) {
+    public PostController(PostService postService, FileStorageService fileStorageService,
+            PublicTimelineSnapshot publicTimelineSnapshot) {
         this.postService = postService;
         this.fileStorageService = fileStorageService;
+        this.publicTimelineSnapshot = publicTimelineSnapshot;
     }
 
     @GetMapping
-    public ResponseEntity<List<PostDTO>> getAllPosts(@AuthenticationPrincipal AppUserDetails auth) {
+    public ResponseEntity<?> getAllPosts(
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "limit", defaultValue = "" + PostService.DEFAULT_PAGE_SIZE) int limit,
+            @RequestParam(value = "all", defaultValue = "false") boolean all,
+            @AuthenticationPrincipal AppUserDetails auth) {
         User currentUser = (auth != null) ? auth.getUser() : null;
-        return ResponseEntity.ok(postService.getAllPostsDTO(currentUser));
+        if (all) {
+            // The unpaginated listing is kept for admin tooling only
+            if (currentUser == null || currentUser.getRole() != Role.ADMIN) {
+                throw new UnauthorizedActionException("Only admins can list all posts at once");
+            }
+            return ResponseEntity.ok(new CursorPageDTO<>(postService.getAllPostsDTO(currentUser), null));
+        }
+        if (currentUser == null) {
+            byte[] page = publicTimelineSnapshot.page(cursor, limit);
+            if (page != null) {
+                return ResponseEntity.ok()
+                        .contentType(org.springframework.http.MediaType.APPLICATION_JSON)
+                        .body(page);
+            }
+        }
+        return ResponseEntity.ok(postService.getAllPostsDTO(currentUser, cursor, limit));
     }
 
     @PreAuthorize("isAuthenticated()")
     @GetMapping("/feed")
-    public ResponseEntity<List<PostDTO>> getFeedPosts(@AuthenticationPrincipal AppUserDetails auth) {
-        return ResponseEntity.ok(postService.getFeedPosts(auth.getUser()));
+    public ResponseEntity<CursorPageDTO<PostSummaryDTO>> getFeedPosts(
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "limit", defaultValue = "" + PostService.DEFAULT_PAGE_SIZE) int limit,
+            @AuthenticationPrincipal AppUserDetails auth) {
+        return ResponseEntity.ok(postService.getFeedPosts(auth.getUser(), cursor, limit));
     }
 
-    @GetMapping("/user/{username}")
-    public ResponseEntity<List<PostDTO>> getPostsByUsername(@PathVariable String username,
+    @GetMapping("/search")
+    public ResponseEntity<CursorPageDTO<PostSummaryDTO>> searchPosts(
+            @RequestParam("q") String query,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "limit", defaultValue = "" + PostService.DEFAULT_PAGE_SIZE) int limit,
             @AuthenticationPrincipal AppUserDetails auth) {
         User currentUser = (auth != null) ? auth.getUser() : null;
-        return ResponseEntity.ok(postService.getPostsByUsername(username, currentUser));
+        return ResponseEntity.ok(postService.searchPosts(query, currentUser, cursor, limit));
+    }
+
+    @GetMapping("/trending")
+    public ResponseEntity<List<PostSummaryDTO>> getTrendingPosts(
+            @RequestParam(value = "limit", defaultValue = "" + PostService.DEFAULT_PAGE_SIZE) int limit,
+            @AuthenticationPrincipal AppUserDetails auth) {
+        User currentUser = (auth != null) ? auth.getUser() : null;
+        return ResponseEntity.ok(postService.getTrendingPosts(currentUser, limit));
+    }
+
+    @GetMapping("/user/{username}")
+    public ResponseEntity<CursorPageDTO<PostSummaryDTO>> getPostsByUsername(@PathVariable String username,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "limit", defaultValue = "" + PostService.DEFAULT_PAGE_SIZE) int limit,
+            @AuthenticationPrincipal AppUserDetails auth, WebRequest request) {
+        User currentUser = (auth != null) ? auth.getUser() : null;
+        ResourceVersion version = postService.getPostsByUsernameVersion(username, currentUser, cursor, limit);
+        if (request.checkNotModified(version.etag())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).headers(version.headers()).build();
+        }
+        return ResponseEntity.ok().headers(version.headers())
+                .body(postService.getPostsByUsername(username, currentUser, cursor, limit));
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<PostDTO> getPostById(@PathVariable Long id, @AuthenticationPrincipal AppUserDetails auth) {
+    public ResponseEntity<PostDTO> getPostById(@PathVariable Long id, @AuthenticationPrincipal AppUserDetails auth,
+            WebRequest request) {
         User currentUser = (auth != null) ? auth.getUser() : null;
-        return ResponseEntity.ok(postService.getPostDetails(id, currentUser));
+        ResourceVersion version = postService.getPostVersion(id, currentUser);
+        if (request.checkNotModified(version.etag())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).headers(version.headers()).build();
+        }
+        return ResponseEntity.ok().headers(version.headers())
+                .body(postService.getPostDetails(id, currentUser));
     }
 
     @PreAuthorize("isAuthenticated()")
@@ -5,6 +5,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
 
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
@@ -15,6 +16,7 @@ import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
 
 import com.zone01.backend.dto.UserDTO;
@@ -23,6 +25,7 @@ import com.zone01.backend.exception.UserNotFoundException;
 import com.zone01.backend.security.AppUserDetails;
 import com.zone01.backend.service.UserService;
 import com.zone01.backend.service.FileStorageService;
+import com.zone01.backend.util.ResourceVersion;
 
 @RestController
 @RequestMapping("/api/users")
@@ -60,11 +63,18 @@ public class UserController {
 
     @GetMapping("/username/{username}")
     public ResponseEntity<UserDTO> getUserByUsername(@PathVariable String username,
-            @AuthenticationPrincipal AppUserDetails auth) {
+            @AuthenticationPrincipal AppUserDetails auth, WebRequest request) {
         User currentUser = (auth != null) ? auth.getUser() : null;
         User user = userService.requireByUsername(username);
         UserDTO userDTO = new UserDTO(user).hideSensitiveInfo(currentUser);
-        return ResponseEntity.ok(userDTO);
+        // Versioned on what this viewer is shown, so owners and visitors never share a validator
+        ResourceVersion version = ResourceVersion.of(user.getUpdatedAt(), userDTO.getId(), userDTO.getUsername(),
+                userDTO.getEmail(), userDTO.getRole(), userDTO.getAvatarUrl(), userDTO.isBanned(),
+                userDTO.getCreatedAt(), userDTO.getUpdatedAt());
+        if (request.checkNotModified(version.etag())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).headers(version.headers()).build();
+        }
+        return ResponseEntity.ok().headers(version.headers()).body(userDTO);
     }
 
     @PreAuthorize("hasRole('ADMIN')")
@@ -1,8 +1,10 @@
 package com.zone01.backend.dto;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 import com.zone01.backend.entity.Notification;
+import com.zone01.backend.entity.NotificationType;
 
 import lombok.Data;
 
@@ -18,6 +20,27 @@ public class NotificationDTO {
     private String actorAvatarUrl;
     private Long targetId;
     private LocalDateTime createdAt;
+    private LocalDateTime lastActivityAt;
+    private int actorCount;
+    private List<String> recentActors;
+
+    public NotificationDTO(Long id, NotificationType type, String message, boolean read, Long postId,
+            Long actorId, String actorUsername, String actorAvatarUrl, Long targetId, LocalDateTime createdAt,
+            LocalDateTime lastActivityAt, int actorCount, String[] recentActors) {
+        this.id = id;
+        this.type = type != null ? type.name() : "NEW_POST";
+        this.message = message;
+        this.read = read;
+        this.postId = postId;
+        this.actorId = actorId;
+        this.actorUsername = actorUsername;
+        this.actorAvatarUrl = actorAvatarUrl;
+        this.targetId = targetId;
+        this.createdAt = createdAt;
+        this.lastActivityAt = lastActivityAt;
+        this.actorCount = actorCount;
+        this.recentActors = recentActors != null ? List.of(recentActors) : List.of();
+    }
 
     public NotificationDTO(Notification notification) {
         this.id = notification.getId();
@@ -32,5 +55,9 @@ public class NotificationDTO {
         }
         this.targetId = notification.getTargetId();
         this.createdAt = notification.getCreatedAt();
+        this.lastActivityAt = notification.getLastActivityAt();
+        this.actorCount = notification.getActorCount();
+        this.recentActors = notification.getRecentActors() != null ? List.of(notification.getRecentActors())
+                : List.of();
     }
 }
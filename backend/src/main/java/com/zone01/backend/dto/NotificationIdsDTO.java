@@ -0,0 +1,17 @@
+package com.zone01.backend.dto;
+
+import java.util.List;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class NotificationIdsDTO {
+
+    @NotNull(message = "Notification ids are required")
+    private List<Long> ids;
+}
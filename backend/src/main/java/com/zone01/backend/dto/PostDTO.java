@@ -4,6 +4,7 @@ import java.time.LocalDateTime;
 
 import com.zone01.backend.entity.MediaType;
 import com.zone01.backend.entity.Post;
+import com.zone01.backend.entity.PostMedia;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
 import jakarta.validation.constraints.NotBlank;
@@ -35,13 +36,34 @@ public class PostDTO {
     private boolean hidden;
 
     public PostDTO(Post post) {
+        this(post, post.getMedia());
+    }
+
+    // Constructor expression target for read-only list queries; media is filled in per page
+    public PostDTO(Long id, String title, String content, Long authorId, String authorUsername,
+            String authorAvatarUrl, long likesCount, long commentsCount, LocalDateTime createdAt,
+            LocalDateTime updateAt, boolean hidden) {
+        this.id = id;
+        this.title = title;
+        this.content = content;
+        this.authorId = authorId;
+        this.authorUsername = authorUsername;
+        this.authorAvatarUrl = authorAvatarUrl;
+        this.likesCount = likesCount;
+        this.commentsCount = commentsCount;
+        this.createdAt = createdAt;
+        this.updateAt = updateAt;
+        this.hidden = hidden;
+    }
+
+    public PostDTO(Post post, java.util.List<PostMedia> media) {
         this.id = post.getId();
         this.title = post.getTitle();
         this.content = post.getContent();
         this.authorId = post.getAuthor().getId();
         this.authorUsername = post.getAuthor().getUsername();
-        if (post.getMedia() != null) {
-            this.media = post.getMedia().stream()
+        if (media != null) {
+            this.media = media.stream()
                     .map(PostMediaDTO::new)
                     .collect(java.util.stream.Collectors.toList());
         }
@@ -2,6 +2,8 @@ package com.zone01.backend.dto;
 
 import com.zone01.backend.entity.MediaType;
 import com.zone01.backend.entity.PostMedia;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -14,6 +16,10 @@ public class PostMediaDTO {
     private String mediaUrl;
     private MediaType mediaType;
 
+    // Only used to group batch-loaded media by post
+    @JsonIgnore
+    private Long postId;
+
     public PostMediaDTO(PostMedia media) {
         this.id = media.getId();
         this.mediaUrl = media.getMediaUrl();
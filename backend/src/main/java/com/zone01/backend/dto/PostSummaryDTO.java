@@ -0,0 +1,73 @@
+package com.zone01.backend.dto;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Card view of a post for list endpoints. Carries the stored excerpt instead
+ * of the full content; clients fetch {@code GET /api/posts/{id}} when
+ * {@code truncated} is set and the whole body is needed.
+ */
+@Data
+@NoArgsConstructor
+public class PostSummaryDTO {
+    private Long id;
+    private String title;
+    private String excerpt;
+    private boolean truncated;
+    private Long authorId;
+    private String authorUsername;
+    private List<PostMediaDTO> media = new ArrayList<>();
+    private Long likesCount;
+    private Long commentsCount;
+    private LocalDateTime createdAt;
+    private LocalDateTime updateAt;
+    private String authorAvatarUrl;
+    private boolean hidden;
+
+    @JsonProperty("isLiked")
+    private boolean isLiked;
+
+    // Constructor expression target for read-only list queries; media is filled in per page
+    public PostSummaryDTO(Long id, String title, String excerpt, boolean truncated, Long authorId,
+            String authorUsername, String authorAvatarUrl, long likesCount, long commentsCount,
+            LocalDateTime createdAt, LocalDateTime updateAt, boolean hidden) {
+        this.id = id;
+        this.title = title;
+        this.excerpt = excerpt;
+        this.truncated = truncated;
+        this.authorId = authorId;
+        this.authorUsername = authorUsername;
+        this.authorAvatarUrl = authorAvatarUrl;
+        this.likesCount = likesCount;
+        this.commentsCount = commentsCount;
+        this.createdAt = createdAt;
+        this.updateAt = updateAt;
+        this.hidden = hidden;
+    }
+
+    // Shallow copy for per-viewer state on shared, cached pages
+    public PostSummaryDTO copy() {
+        PostSummaryDTO copy = new PostSummaryDTO(id, title, excerpt, truncated, authorId, authorUsername,
+                authorAvatarUrl, likesCount, commentsCount, createdAt, updateAt, hidden);
+        copy.setMedia(media);
+        return copy.withIsLiked(isLiked);
+    }
+
+    public PostSummaryDTO withCounts(long likes, long comments) {
+        this.likesCount = likes;
+        this.commentsCount = comments;
+        return this;
+    }
+
+    public PostSummaryDTO withIsLiked(boolean isLiked) {
+        this.isLiked = isLiked;
+        return this;
+    }
+}
@@ -0,0 +1,70 @@
+package com.zone01.backend.entity;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A unit of background work in the Postgres-backed job queue. Rows are
+ * claimed, leased and deleted with native statements in
+ * {@link com.zone01.backend.job.JobQueue}; the mapping exists for the schema.
+ * A finished job is deleted, so the table only holds outstanding and dead work.
+ */
+@Data
+@NoArgsConstructor
+@Entity
+@Table(name = "jobs")
+public class Job {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "job_type", nullable = false, length = 60)
+    private String type;
+
+    @Column(nullable = false, columnDefinition = "text")
+    private String payload;
+
+    // Higher runs first
+    @Column(nullable = false)
+    private int priority;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private JobStatus status = JobStatus.QUEUED;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(name = "max_attempts", nullable = false)
+    private int maxAttempts;
+
+    @Column(name = "run_at", nullable = false)
+    private LocalDateTime runAt;
+
+    // Set while RUNNING; a lease that runs out puts the job back in the queue
+    @Column(name = "lease_id", length = 36)
+    private String leaseId;
+
+    @Column(name = "locked_until")
+    private LocalDateTime lockedUntil;
+
+    @Column(name = "locked_by", length = 100)
+    private String lockedBy;
+
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
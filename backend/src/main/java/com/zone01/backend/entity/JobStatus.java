@@ -0,0 +1,7 @@
+package com.zone01.backend.entity;
+
+public enum JobStatus {
+    QUEUED,
+    RUNNING,
+    DEAD
+}
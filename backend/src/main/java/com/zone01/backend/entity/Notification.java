@@ -1,18 +1,24 @@
 package com.zone01.backend.entity;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
 import jakarta.persistence.Column;
+import jakarta.persistence.ConstraintMode;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.FetchType;
+import jakarta.persistence.ForeignKey;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.PrePersist;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -23,22 +29,29 @@ import lombok.Setter;
 @NoArgsConstructor
 @Entity
 @Table(name = "notifications")
+// Partitioned by NotificationPartitionService, which also owns the foreign keys: schema update cannot see
+// constraints on a partitioned table and would add them again on every start. It does not add columns to it
+// either; DatabaseConfig does
 public class Notification {
 
+    // Ids handed out per sequence call; bulk native inserts allocate in blocks of the same size
+    public static final int ID_BLOCK_SIZE = 50;
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "notifications_seq")
+    @SequenceGenerator(name = "notifications_seq", sequenceName = "notifications_seq", allocationSize = ID_BLOCK_SIZE)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
-    @JoinColumn(name = "recipient_id", nullable = false)
+    @JoinColumn(name = "recipient_id", nullable = false, foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
     private User recipient;
 
     @ManyToOne(fetch = FetchType.LAZY)
-    @JoinColumn(name = "post_id")
+    @JoinColumn(name = "post_id", foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
     private Post post;
 
     @ManyToOne(fetch = FetchType.LAZY)
-    @JoinColumn(name = "actor_id")
+    @JoinColumn(name = "actor_id", foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
     private User actor;
 
     @Column(name = "target_id")
@@ -54,9 +67,22 @@ public class Notification {
     @Column(name = "is_read", nullable = false)
     private boolean read = false;
 
+    // How many actors this notification stands for; likes and follows inside the aggregation window are
+    // folded into one row, see NotificationService
+    @Column(name = "actor_count", nullable = false, columnDefinition = "integer default 1")
+    private int actorCount = 1;
+
+    // Usernames of the latest actors, newest first, as they were when they acted
+    @Column(name = "recent_actors")
+    private String[] recentActors;
+
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
+    // The inbox is ordered by this rather than createdAt, so an aggregate that gains an actor moves to the top
+    @Column(name = "last_activity_at", nullable = false)
+    private LocalDateTime lastActivityAt;
+
     public Notification(User recipient, User actor, Post post, NotificationType type, String message) {
         this.recipient = recipient;
         this.actor = actor;
@@ -73,8 +99,25 @@ public class Notification {
         this.message = message;
     }
 
+    /**
+     * Folds a new actor into this notification and moves it up the inbox.
+     * Whether the actor is new is decided by the caller, see
+     * {@code NotificationRepository.recordActor}; the recent list only keeps
+     * the latest few and cannot tell.
+     */
+    public void addActor(User actor, int recentLimit) {
+        List<String> recent = new ArrayList<>(recentActors != null ? Arrays.asList(recentActors) : List.of());
+        recent.remove(actor.getUsername());
+        recent.add(0, actor.getUsername());
+        this.recentActors = recent.subList(0, Math.min(recent.size(), recentLimit)).toArray(String[]::new);
+        this.actorCount++;
+        this.actor = actor;
+        this.lastActivityAt = LocalDateTime.now();
+    }
+
     @PrePersist
     public void onCreate() {
         this.createdAt = LocalDateTime.now();
+        this.lastActivityAt = this.createdAt;
     }
 }
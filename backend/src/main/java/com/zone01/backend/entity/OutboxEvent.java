@@ -0,0 +1,65 @@
+package com.zone01.backend.entity;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A domain event written in the same transaction as the change it describes
+ * and drained afterwards by the outbox dispatcher. Ids are plain columns:
+ * handlers reload what they need, and a row must not block deleting the
+ * post or user it mentions.
+ */
+@Data
+@NoArgsConstructor
+@Entity
+@Table(name = "outbox_events")
+public class OutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "event_type", nullable = false, length = 40)
+    private OutboxEventType type;
+
+    @Column(name = "actor_id", nullable = false)
+    private Long actorId;
+
+    // The post for post events, the followed user for USER_FOLLOWED
+    @Column(name = "subject_id", nullable = false)
+    private Long subjectId;
+
+    @Column(name = "occurred_at", nullable = false)
+    private LocalDateTime occurredAt;
+
+    @Column(name = "available_at", nullable = false)
+    private LocalDateTime availableAt;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+
+    @Column(name = "processed_at")
+    private LocalDateTime processedAt;
+
+    public OutboxEvent(OutboxEventType type, Long actorId, Long subjectId, LocalDateTime occurredAt) {
+        this.type = type;
+        this.actorId = actorId;
+        this.subjectId = subjectId;
+        this.occurredAt = occurredAt;
+        this.availableAt = occurredAt;
+    }
+}
@@ -0,0 +1,8 @@
+package com.zone01.backend.entity;
+
+public enum OutboxEventType {
+    POST_PUBLISHED,
+    POST_LIKED,
+    POST_COMMENTED,
+    USER_FOLLOWED
+}
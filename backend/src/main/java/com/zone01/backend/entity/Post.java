@@ -4,6 +4,8 @@ import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
+import com.zone01.backend.util.ExcerptUtil;
+
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
@@ -13,13 +15,14 @@ import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.PrePersist;
 import jakarta.persistence.PreUpdate;
 import jakarta.persistence.Table;
-import org.hibernate.annotations.Formula;
+
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -28,7 +31,9 @@ import lombok.NoArgsConstructor;
 @AllArgsConstructor
 @NoArgsConstructor
 @Entity
-@Table(name = "posts")
+@Table(name = "posts", indexes = {
+        @Index(name = "idx_posts_created_at_id", columnList = "created_at, id"),
+        @Index(name = "idx_posts_author_created_at_id", columnList = "user_id, created_at, id")})
 public class Post {
 
     @Id
@@ -41,13 +46,20 @@ public class Post {
     @Column(nullable = false, columnDefinition = "TEXT")
     private String content;
 
+    @Column(length = 320)
+    private String excerpt;
+
+    @Column(name = "excerpt_truncated", nullable = false, columnDefinition = "boolean default false")
+    private boolean excerptTruncated;
+
     @OneToMany(mappedBy = "post", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<PostMedia> media = new ArrayList<>();
 
-    @Formula("(SELECT COUNT(*) FROM likes l WHERE l.post_id = id)")
+    // Maintained by atomic UPDATEs in PostRepository, never by entity flushes
+    @Column(name = "like_count", nullable = false, insertable = false, updatable = false, columnDefinition = "bigint default 0")
     private long likeCount;
 
-    @Formula("(SELECT COUNT(*) FROM comments c WHERE c.post_id = id)")
+    @Column(name = "comment_count", nullable = false, insertable = false, updatable = false, columnDefinition = "bigint default 0")
     private long commentCount;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -80,10 +92,17 @@ public class Post {
         LocalDateTime now = LocalDateTime.now();
         this.createdAt = now;
         this.updatedAt = now;
+        refreshExcerpt();
     }
 
     @PreUpdate
     public void onUpdate() {
         this.updatedAt = LocalDateTime.now();
+        refreshExcerpt();
+    }
+
+    private void refreshExcerpt() {
+        this.excerpt = ExcerptUtil.excerpt(content);
+        this.excerptTruncated = ExcerptUtil.isTruncated(content);
     }
 }
@@ -0,0 +1,38 @@
+package com.zone01.backend.entity;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A short-lived, single-use credential for opening the notification stream,
+ * since EventSource cannot send an Authorization header. Only a hash of the
+ * ticket is stored, and the user id is a plain column so an unused ticket
+ * never blocks deleting its user.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "stream_tickets", indexes = {
+        @Index(name = "idx_stream_tickets_expires", columnList = "expires_at")
+})
+public class StreamTicket {
+
+    @Id
+    @Column(name = "ticket_hash", length = 64)
+    private String ticketHash;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+}
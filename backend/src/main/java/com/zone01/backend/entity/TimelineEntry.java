@@ -0,0 +1,49 @@
+package com.zone01.backend.entity;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One row per (reader, post) in a reader's materialized home timeline.
+ * Ids are stored as plain columns so fan-out and pruning stay set-based
+ * native statements; readers join back to posts when rendering a page.
+ */
+@Data
+@NoArgsConstructor
+@Entity
+@Table(name = "timeline_entries", uniqueConstraints = {
+        @UniqueConstraint(columnNames = {"user_id", "post_id"})
+}, indexes = {
+        @Index(name = "idx_timeline_user_created_post", columnList = "user_id, created_at, post_id"),
+        @Index(name = "idx_timeline_user_author", columnList = "user_id, author_id"),
+        @Index(name = "idx_timeline_post", columnList = "post_id"),
+        @Index(name = "idx_timeline_author", columnList = "author_id")
+})
+public class TimelineEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "post_id", nullable = false)
+    private Long postId;
+
+    @Column(name = "author_id", nullable = false)
+    private Long authorId;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
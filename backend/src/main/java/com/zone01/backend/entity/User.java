@@ -49,6 +49,13 @@ public class User {
     @Column(name = "is_banned", nullable = false, columnDefinition = "boolean default false")
     private boolean banned = false;
 
+    @Column(name = "is_celebrity", nullable = false, columnDefinition = "boolean default false")
+    private boolean celebrity = false;
+
+    // Maintained by atomic UPDATEs alongside notification writes, never by entity flushes
+    @Column(name = "unread_notifications", nullable = false, insertable = false, updatable = false, columnDefinition = "bigint default 0")
+    private long unreadNotifications;
+
     @Enumerated(EnumType.STRING)
     @Column(nullable = false, length = 20)
     private Role role = Role.USER;
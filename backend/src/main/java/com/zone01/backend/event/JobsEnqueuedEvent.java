@@ -0,0 +1,5 @@
+package com.zone01.backend.event;
+
+// Published on enqueue so this node's workers start before the next poll
+public record JobsEnqueuedEvent(String type) {
+}
@@ -0,0 +1,14 @@
+package com.zone01.backend.event;
+
+import java.time.LocalDateTime;
+
+public record PostChangedEvent(Long postId, Long authorId, LocalDateTime createdAt, Change change) {
+
+    public enum Change {
+        PUBLISHED,
+        UPDATED,
+        HIDDEN,
+        UNHIDDEN,
+        DELETED
+    }
+}
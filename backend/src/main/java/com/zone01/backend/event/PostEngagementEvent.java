@@ -0,0 +1,13 @@
+package com.zone01.backend.event;
+
+import java.time.LocalDateTime;
+
+// occurredAt is when the like or comment was made, also when it is removed, so that a removal cancels
+// exactly what the addition contributed to time-weighted scores
+public record PostEngagementEvent(Long postId, Kind kind, int delta, LocalDateTime occurredAt) {
+
+    public enum Kind {
+        LIKE,
+        COMMENT
+    }
+}
@@ -0,0 +1,15 @@
+package com.zone01.backend.job;
+
+/**
+ * Runs one type of job. Handlers are called inside a transaction that also
+ * deletes the job, so database work done here commits exactly once; work
+ * outside the database must tolerate being repeated.
+ */
+public interface JobHandler<P> {
+
+    String type();
+
+    Class<P> payloadType();
+
+    void handle(P payload);
+}
@@ -0,0 +1,134 @@
+package com.zone01.backend.job;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zone01.backend.event.JobsEnqueuedEvent;
+
+/**
+ * Postgres-backed job queue. Jobs are claimed in batches with
+ * {@code FOR UPDATE SKIP LOCKED}, so any number of workers on any number of
+ * nodes can poll the same table without blocking each other or taking the
+ * same job. A claim is a lease: a job whose worker dies is queued again once
+ * its lease runs out.
+ *
+ * Enqueueing joins the caller's transaction, so a job exists only if the
+ * change that asked for it was committed.
+ */
+@Component
+public class JobQueue {
+
+    public record ClaimedJob(long id, String type, String payload, int priority, int attempts, int maxAttempts,
+            LocalDateTime runAt, String leaseId) {
+    }
+
+    private static final String CLAIM_SQL = "UPDATE jobs j SET status = 'RUNNING', attempts = j.attempts + 1, "
+            + "lease_id = ?, locked_until = ?, locked_by = ? "
+            + "FROM (SELECT id FROM jobs WHERE status = 'QUEUED' AND run_at <= ? "
+            + "ORDER BY priority DESC, run_at, id LIMIT ? FOR UPDATE SKIP LOCKED) c WHERE j.id = c.id "
+            + "RETURNING j.id, j.job_type, j.payload, j.priority, j.attempts, j.max_attempts, j.run_at";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int defaultMaxAttempts;
+    private final String nodeId;
+
+    public JobQueue(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper, ApplicationEventPublisher eventPublisher,
+            @Value("${jobs.max-attempts:8}") int defaultMaxAttempts) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.eventPublisher = eventPublisher;
+        this.defaultMaxAttempts = defaultMaxAttempts;
+        this.nodeId = java.lang.management.ManagementFactory.getRuntimeMXBean().getName();
+    }
+
+    public void enqueue(String type, Object payload, int priority) {
+        enqueue(type, payload, priority, LocalDateTime.now());
+    }
+
+    public void enqueue(String type, Object payload, int priority, LocalDateTime runAt) {
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalArgumentException("Job payload cannot be serialized: " + type, ex);
+        }
+        LocalDateTime now = LocalDateTime.now();
+        jdbcTemplate.update("INSERT INTO jobs (job_type, payload, priority, status, attempts, max_attempts, run_at, "
+                + "created_at) VALUES (?, ?, ?, 'QUEUED', 0, ?, ?, ?)",
+                type, json, priority, defaultMaxAttempts, Timestamp.valueOf(runAt), Timestamp.valueOf(now));
+        eventPublisher.publishEvent(new JobsEnqueuedEvent(type));
+    }
+
+    /** Claims up to {@code limit} due jobs, highest priority first, leased for {@code leaseMs}. */
+    public List<ClaimedJob> claim(int limit, long leaseMs) {
+        String leaseId = UUID.randomUUID().toString();
+        LocalDateTime now = LocalDateTime.now();
+        List<ClaimedJob> jobs = new ArrayList<>(jdbcTemplate.query(CLAIM_SQL,
+                (rs, rowNum) -> new ClaimedJob(rs.getLong("id"), rs.getString("job_type"), rs.getString("payload"),
+                        rs.getInt("priority"), rs.getInt("attempts"), rs.getInt("max_attempts"),
+                        rs.getTimestamp("run_at").toLocalDateTime(), leaseId),
+                leaseId, Timestamp.valueOf(now.plusNanos(leaseMs * 1_000_000)), nodeId, Timestamp.valueOf(now),
+                limit));
+        // RETURNING does not keep the subquery's order
+        jobs.sort(Comparator.comparingInt(ClaimedJob::priority).reversed()
+                .thenComparing(ClaimedJob::runAt)
+                .thenComparingLong(ClaimedJob::id));
+        return jobs;
+    }
+
+    /**
+     * Deletes a finished job. Call inside the handler's transaction; returns
+     * false if the lease was lost to another worker, in which case the
+     * handler's work must be rolled back.
+     */
+    public boolean complete(ClaimedJob job) {
+        return jdbcTemplate.update("DELETE FROM jobs WHERE id = ? AND lease_id = ?", job.id(), job.leaseId()) > 0;
+    }
+
+    /** Queues the job again at {@code retryAt}, or marks it dead when it is out of attempts. */
+    public void fail(ClaimedJob job, String error, LocalDateTime retryAt) {
+        jdbcTemplate.update("UPDATE jobs SET status = CASE WHEN attempts >= max_attempts THEN 'DEAD' ELSE 'QUEUED' END, "
+                + "run_at = ?, last_error = ?, lease_id = NULL, locked_until = NULL, locked_by = NULL "
+                + "WHERE id = ? AND lease_id = ?",
+                Timestamp.valueOf(retryAt), error, job.id(), job.leaseId());
+    }
+
+    /** Returns jobs whose lease ran out, typically because their node stopped, to the queue. */
+    public int requeueExpired() {
+        return jdbcTemplate.update("UPDATE jobs SET status = CASE WHEN attempts >= max_attempts THEN 'DEAD' ELSE 'QUEUED' END, "
+                + "last_error = COALESCE(last_error, 'Lease expired'), lease_id = NULL, locked_until = NULL, locked_by = NULL "
+                + "WHERE status = 'RUNNING' AND locked_until < ?", Timestamp.valueOf(LocalDateTime.now()));
+    }
+
+    public Map<String, Object> depth() {
+        Map<String, Object> depth = new LinkedHashMap<>();
+        jdbcTemplate.query("SELECT COUNT(*) FILTER (WHERE status = 'QUEUED' AND run_at <= now()) AS ready, "
+                + "COUNT(*) FILTER (WHERE status = 'QUEUED' AND run_at > now()) AS scheduled, "
+                + "COUNT(*) FILTER (WHERE status = 'RUNNING') AS running, "
+                + "COUNT(*) FILTER (WHERE status = 'DEAD') AS dead, "
+                + "CAST(COALESCE(EXTRACT(EPOCH FROM now() - MIN(run_at) FILTER (WHERE status = 'QUEUED' AND run_at <= now())), 0) * 1000 AS bigint) AS lag_ms "
+                + "FROM jobs", rs -> {
+                    depth.put("ready", rs.getLong("ready"));
+                    depth.put("scheduled", rs.getLong("scheduled"));
+                    depth.put("running", rs.getLong("running"));
+                    depth.put("dead", rs.getLong("dead"));
+                    depth.put("oldestReadyLagMs", rs.getLong("lag_ms"));
+                });
+        return depth;
+    }
+}
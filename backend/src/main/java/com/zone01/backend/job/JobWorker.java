@@ -0,0 +1,232 @@
+package com.zone01.backend.job;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zone01.backend.event.JobsEnqueuedEvent;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * This node's worker pool for the {@link JobQueue}. Jobs are claimed only
+ * for idle workers, so nothing sits leased in a local backlog while other
+ * nodes are idle; while the queue has a backlog, a worker that finishes
+ * claims again straight away. Each job runs in its own transaction together
+ * with its deletion; failures are retried with exponential backoff.
+ */
+@Component
+public class JobWorker {
+
+    private static final Logger log = LoggerFactory.getLogger(JobWorker.class);
+    private static final long MAX_BACKOFF_MS = 3_600_000;
+    private static final int RATE_WINDOW_SECONDS = 60;
+
+    private final JobQueue jobQueue;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final Map<String, JobHandler<?>> handlers = new HashMap<>();
+    private final int workers;
+    private final int batchSize;
+    private final long visibilityTimeoutMs;
+    private final long retryDelayMs;
+
+    private final ExecutorService executor;
+    private final Semaphore idleWorkers;
+    private volatile boolean stopping;
+    // The last claim filled every idle worker, so more jobs are probably due
+    private volatile boolean backlog;
+
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final AtomicLong lastLagMs = new AtomicLong();
+    // Completions per second over the last minute, indexed by epoch second
+    private final AtomicLongArray rateCounts = new AtomicLongArray(RATE_WINDOW_SECONDS);
+    private final AtomicLongArray rateSeconds = new AtomicLongArray(RATE_WINDOW_SECONDS);
+
+    public JobWorker(JobQueue jobQueue, ObjectMapper objectMapper, PlatformTransactionManager transactionManager,
+            List<JobHandler<?>> handlers,
+            @Value("${jobs.workers:4}") int workers,
+            @Value("${jobs.batch-size:10}") int batchSize,
+            @Value("${jobs.visibility-timeout-ms:60000}") long visibilityTimeoutMs,
+            @Value("${jobs.retry-delay-ms:1000}") long retryDelayMs) {
+        this.jobQueue = jobQueue;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        for (JobHandler<?> handler : handlers) {
+            this.handlers.put(handler.type(), handler);
+        }
+        this.workers = workers;
+        this.batchSize = batchSize;
+        this.visibilityTimeoutMs = visibilityTimeoutMs;
+        this.retryDelayMs = retryDelayMs;
+        this.idleWorkers = new Semaphore(workers);
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(workers, runnable -> {
+            Thread thread = new Thread(runnable, "job-worker-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Async
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onEnqueued(JobsEnqueuedEvent event) {
+        poll();
+    }
+
+    @Scheduled(fixedDelayString = "${jobs.poll-interval-ms:1000}")
+    public synchronized void poll() {
+        while (!stopping) {
+            int permits = 0;
+            while (permits < batchSize && idleWorkers.tryAcquire()) {
+                permits++;
+            }
+            if (permits == 0) {
+                return;
+            }
+            List<JobQueue.ClaimedJob> jobs;
+            try {
+                jobs = jobQueue.claim(permits, visibilityTimeoutMs);
+            } catch (RuntimeException ex) {
+                idleWorkers.release(permits);
+                log.warn("Could not claim jobs: {}", ex.getMessage());
+                return;
+            }
+            idleWorkers.release(permits - jobs.size());
+            backlog = jobs.size() == permits;
+            LocalDateTime claimedAt = LocalDateTime.now();
+            for (JobQueue.ClaimedJob job : jobs) {
+                lastLagMs.set(Math.max(0, Duration.between(job.runAt(), claimedAt).toMillis()));
+                executor.execute(() -> {
+                    try {
+                        run(job);
+                    } finally {
+                        idleWorkers.release();
+                    }
+                    // Pull the next job now rather than at the next poll
+                    if (backlog) {
+                        poll();
+                    }
+                });
+            }
+            if (!backlog) {
+                return;
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${jobs.reaper-interval-ms:15000}")
+    public void requeueExpired() {
+        int requeued = jobQueue.requeueExpired();
+        if (requeued > 0) {
+            log.warn("Requeued {} jobs whose lease expired", requeued);
+        }
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>(jobQueue.depth());
+        stats.put("workers", workers);
+        stats.put("busyWorkers", workers - idleWorkers.availablePermits());
+        stats.put("completed", completed.sum());
+        stats.put("failed", failed.sum());
+        stats.put("completedLastMinute", completedLastMinute());
+        stats.put("lastClaimLagMs", lastLagMs.get());
+        return stats;
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        stopping = true;
+        executor.shutdown();
+        // Anything still running when this gives up is picked up again after its lease expires
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    private void run(JobQueue.ClaimedJob job) {
+        try {
+            JobHandler<?> handler = handlers.get(job.type());
+            if (handler == null) {
+                throw new IllegalStateException("No handler for job type " + job.type());
+            }
+            transactionTemplate.executeWithoutResult(status -> {
+                invoke(handler, job.payload());
+                if (!jobQueue.complete(job)) {
+                    throw new IllegalStateException("Lease on job " + job.id() + " was lost");
+                }
+            });
+            completed.increment();
+            markCompleted();
+        } catch (RuntimeException ex) {
+            failed.increment();
+            long delayMs = Math.min(retryDelayMs << Math.min(job.attempts() - 1, 30), MAX_BACKOFF_MS);
+            String error = String.valueOf(ex.getMessage());
+            if (job.attempts() >= job.maxAttempts()) {
+                log.error("Job {} ({}) is dead after {} attempts", job.id(), job.type(), job.attempts(), ex);
+            } else {
+                log.warn("Job {} ({}) failed, retrying in {} ms: {}", job.id(), job.type(), delayMs, error);
+            }
+            try {
+                jobQueue.fail(job, error.length() > 1000 ? error.substring(0, 1000) : error,
+                        LocalDateTime.now().plusNanos(delayMs * 1_000_000));
+            } catch (RuntimeException failEx) {
+                // The lease runs out and the reaper requeues it
+                log.warn("Could not record failure of job {}: {}", job.id(), failEx.getMessage());
+            }
+        }
+    }
+
+    private <P> void invoke(JobHandler<P> handler, String payload) {
+        P value;
+        try {
+            value = objectMapper.readValue(payload, handler.payloadType());
+        } catch (java.io.IOException ex) {
+            throw new IllegalArgumentException("Unreadable payload for job type " + handler.type(), ex);
+        }
+        handler.handle(value);
+    }
+
+    private void markCompleted() {
+        long second = System.currentTimeMillis() / 1000;
+        int slot = (int) (second % RATE_WINDOW_SECONDS);
+        long previous = rateSeconds.get(slot);
+        if (previous != second && rateSeconds.compareAndSet(slot, previous, second)) {
+            rateCounts.set(slot, 0);
+        }
+        rateCounts.incrementAndGet(slot);
+    }
+
+    private long completedLastMinute() {
+        long now = System.currentTimeMillis() / 1000;
+        long total = 0;
+        for (int slot = 0; slot < RATE_WINDOW_SECONDS; slot++) {
+            if (now - rateSeconds.get(slot) < RATE_WINDOW_SECONDS) {
+                total += rateCounts.get(slot);
+            }
+        }
+        return total;
+    }
+}
@@ -0,0 +1,53 @@
+package com.zone01.backend.job;
+
+import java.util.List;
+
+import org.springframework.stereotype.Component;
+
+import com.zone01.backend.repository.PostMediaRepository;
+import com.zone01.backend.repository.UserRepository;
+import com.zone01.backend.service.FileStorageService;
+
+/**
+ * Deletes uploaded files that were detached from a post or profile. A file
+ * is only removed if nothing references it any more when the job runs.
+ */
+@Component
+public class MediaCleanupJob implements JobHandler<MediaCleanupJob.Payload> {
+
+    public static final String TYPE = "media.cleanup";
+    public static final int PRIORITY = 0;
+
+    public record Payload(List<String> mediaUrls) {
+    }
+
+    private final FileStorageService fileStorageService;
+    private final PostMediaRepository postMediaRepository;
+    private final UserRepository userRepository;
+
+    public MediaCleanupJob(FileStorageService fileStorageService, PostMediaRepository postMediaRepository,
+            UserRepository userRepository) {
+        this.fileStorageService = fileStorageService;
+        this.postMediaRepository = postMediaRepository;
+        this.userRepository = userRepository;
+    }
+
+    @Override
+    public String type() {
+        return TYPE;
+    }
+
+    @Override
+    public Class<Payload> payloadType() {
+        return Payload.class;
+    }
+
+    @Override
+    public void handle(Payload payload) {
+        for (String mediaUrl : payload.mediaUrls()) {
+            if (!postMediaRepository.existsByMediaUrl(mediaUrl) && !userRepository.existsByAvatarUrl(mediaUrl)) {
+                fileStorageService.delete(mediaUrl);
+            }
+        }
+    }
+}
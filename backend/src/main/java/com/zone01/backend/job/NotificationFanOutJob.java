@@ -0,0 +1,41 @@
+package com.zone01.backend.job;
+
+import org.springframework.stereotype.Component;
+
+import com.zone01.backend.service.NotificationService;
+
+/**
+ * Inserts new-post notifications for one chunk of the author's subscribers
+ * and queues the next chunk, so a large following is notified by many short
+ * transactions rather than one long one.
+ */
+@Component
+public class NotificationFanOutJob implements JobHandler<NotificationFanOutJob.Payload> {
+
+    public static final String TYPE = "notifications.fan-out";
+    public static final int PRIORITY = 10;
+
+    public record Payload(long postId, long afterSubscriberId) {
+    }
+
+    private final NotificationService notificationService;
+
+    public NotificationFanOutJob(NotificationService notificationService) {
+        this.notificationService = notificationService;
+    }
+
+    @Override
+    public String type() {
+        return TYPE;
+    }
+
+    @Override
+    public Class<Payload> payloadType() {
+        return Payload.class;
+    }
+
+    @Override
+    public void handle(Payload payload) {
+        notificationService.notifySubscribersAfter(payload.postId(), payload.afterSubscriberId());
+    }
+}
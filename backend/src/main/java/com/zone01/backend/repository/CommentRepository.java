@@ -5,6 +5,7 @@ import java.util.List;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import com.zone01.backend.dto.CommentDTO;
 import com.zone01.backend.entity.Comment;
 import com.zone01.backend.entity.Post;
 import com.zone01.backend.entity.User;
@@ -16,6 +17,26 @@ public interface CommentRepository extends JpaRepository<Comment, Long> {
 
     List<Comment> findByPostIdOrderByCreatedAtAsc(Long postId);
 
+    @org.springframework.data.jpa.repository.Query("SELECT new com.zone01.backend.dto.CommentDTO(c.id, c.content, a.username, a.id, c.post.id, c.createdAt, c.updatedAt) "
+            + "FROM Comment c JOIN c.author a WHERE c.post.id = :postId ORDER BY c.createdAt ASC")
+    List<CommentDTO> findDtosByPostId(@org.springframework.data.repository.query.Param("postId") Long postId);
+
+    // Changes whenever a comment is added, edited or removed, or a commenter is renamed
+    interface CommentsVersion {
+        Long getCount();
+
+        Long getIdSum();
+
+        java.time.LocalDateTime getLastUpdatedAt();
+
+        java.time.LocalDateTime getLastAuthorUpdatedAt();
+    }
+
+    @org.springframework.data.jpa.repository.Query("SELECT COUNT(c) AS count, COALESCE(SUM(c.id), 0) AS idSum, "
+            + "MAX(c.updatedAt) AS lastUpdatedAt, MAX(a.updatedAt) AS lastAuthorUpdatedAt "
+            + "FROM Comment c JOIN c.author a WHERE c.post.id = :postId")
+    CommentsVersion findVersionByPostId(@org.springframework.data.repository.query.Param("postId") Long postId);
+
     List<Comment> findByAuthor(User author);
 
     List<Comment> findByAuthorId(Long authorId);
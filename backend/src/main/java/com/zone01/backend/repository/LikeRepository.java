@@ -41,4 +41,37 @@ public interface LikeRepository extends JpaRepository<Like, Long> {
 
     @org.springframework.data.jpa.repository.Query("SELECT l.post.id FROM Like l WHERE l.user = :user")
     java.util.Set<Long> findPostIdsLikedByUser(@org.springframework.data.repository.query.Param("user") User user);
+
+    @org.springframework.data.jpa.repository.Query("SELECT l.post.id FROM Like l WHERE l.user.id = :userId AND l.post.id IN :postIds")
+    java.util.Set<Long> findLikedPostIdsAmong(@org.springframework.data.repository.query.Param("userId") Long userId,
+            @org.springframework.data.repository.query.Param("postIds") java.util.Collection<Long> postIds);
+
+    // Returns the new like id, or nothing when the like already exists or the post is missing or hidden
+    @org.springframework.data.jpa.repository.Query(value = "INSERT INTO likes (user_id, post_id, created_at) "
+            + "SELECT :userId, p.id, :createdAt FROM posts p WHERE p.id = :postId AND p.hidden = false "
+            + "ON CONFLICT (user_id, post_id) DO NOTHING RETURNING id", nativeQuery = true)
+    Optional<Long> insertIfAbsent(@org.springframework.data.repository.query.Param("userId") Long userId,
+            @org.springframework.data.repository.query.Param("postId") Long postId,
+            @org.springframework.data.repository.query.Param("createdAt") java.time.LocalDateTime createdAt);
+
+    interface LikeState {
+        Boolean getHidden();
+
+        Long getLikeId();
+
+        java.time.LocalDateTime getLikedAt();
+    }
+
+    // Whether the post is hidden and the user's like on it, if any; nothing when the post is missing
+    @org.springframework.data.jpa.repository.Query("SELECT p.hidden AS hidden, l.id AS likeId, l.createdAt AS likedAt "
+            + "FROM Post p LEFT JOIN Like l ON l.post = p AND l.user.id = :userId WHERE p.id = :postId")
+    Optional<LikeState> findLikeState(@org.springframework.data.repository.query.Param("userId") Long userId,
+            @org.springframework.data.repository.query.Param("postId") Long postId);
+
+    // Returns when the removed like was made, or nothing when there was no like or the post is hidden
+    @org.springframework.data.jpa.repository.Query(value = "DELETE FROM likes l USING posts p "
+            + "WHERE p.id = l.post_id AND l.user_id = :userId AND l.post_id = :postId AND p.hidden = false "
+            + "RETURNING l.created_at", nativeQuery = true)
+    Optional<java.time.LocalDateTime> deleteVisible(@org.springframework.data.repository.query.Param("userId") Long userId,
+            @org.springframework.data.repository.query.Param("postId") Long postId);
 }
@@ -5,11 +5,130 @@ import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
 
+import com.zone01.backend.dto.NotificationDTO;
 import com.zone01.backend.entity.Notification;
+import com.zone01.backend.entity.NotificationType;
 import com.zone01.backend.entity.User;
 
 public interface NotificationRepository extends JpaRepository<Notification, Long> {
-    List<Notification> findByRecipientOrderByCreatedAtDesc(User recipient);
+    // Both walk idx_notifications_inbox_activity from the cursor. Nothing is active before it was created, so the
+    // created_at bound holds too, and lets the planner skip older partitions
+    @org.springframework.data.jpa.repository.Query("SELECT new com.zone01.backend.dto.NotificationDTO(n.id, n.type, n.message, n.read, n.post.id, "
+            + "a.id, a.username, a.avatarUrl, n.targetId, n.createdAt, n.lastActivityAt, n.actorCount, n.recentActors) "
+            + "FROM Notification n LEFT JOIN n.actor a WHERE n.recipient.id = :recipientId ORDER BY n.lastActivityAt DESC, n.id DESC")
+    List<NotificationDTO> findInboxPage(@org.springframework.data.repository.query.Param("recipientId") Long recipientId,
+            org.springframework.data.domain.Pageable pageable);
+
+    @org.springframework.data.jpa.repository.Query("SELECT new com.zone01.backend.dto.NotificationDTO(n.id, n.type, n.message, n.read, n.post.id, "
+            + "a.id, a.username, a.avatarUrl, n.targetId, n.createdAt, n.lastActivityAt, n.actorCount, n.recentActors) "
+            + "FROM Notification n LEFT JOIN n.actor a WHERE n.recipient.id = :recipientId "
+            + "AND n.createdAt <= :activeAt AND (n.lastActivityAt, n.id) < (:activeAt, :id) ORDER BY n.lastActivityAt DESC, n.id DESC")
+    List<NotificationDTO> findInboxPageBefore(@org.springframework.data.repository.query.Param("recipientId") Long recipientId,
+            @org.springframework.data.repository.query.Param("activeAt") java.time.LocalDateTime activeAt,
+            @org.springframework.data.repository.query.Param("id") Long id,
+            org.springframework.data.domain.Pageable pageable);
     Optional<Notification> findByIdAndRecipient(Long id, User recipient);
-    long countByRecipientAndReadIsFalse(User recipient);
+
+    // Serializes aggregation for one key until the transaction ends, on every node
+    @org.springframework.data.jpa.repository.Query(value = "SELECT count(*) FROM (SELECT pg_advisory_xact_lock(hashtextextended(:key, 0))) l", nativeQuery = true)
+    long lockAggregate(@org.springframework.data.repository.query.Param("key") String key);
+
+    // Returns 1 when the actor is new to the notification and 0 when it was already counted
+    @org.springframework.data.jpa.repository.Modifying
+    @org.springframework.data.jpa.repository.Query(value = "INSERT INTO notification_actors (notification_id, actor_id, created_at) "
+            + "VALUES (:notificationId, :actorId, :createdAt) ON CONFLICT DO NOTHING", nativeQuery = true)
+    int recordActor(@org.springframework.data.repository.query.Param("notificationId") Long notificationId,
+            @org.springframework.data.repository.query.Param("actorId") Long actorId,
+            @org.springframework.data.repository.query.Param("createdAt") java.time.LocalDateTime createdAt);
+
+    // Actors of notifications created before the aggregation window can no longer be folded into them
+    @org.springframework.data.jpa.repository.Modifying
+    @org.springframework.data.jpa.repository.Query(value = "DELETE FROM notification_actors WHERE created_at < :before", nativeQuery = true)
+    int deleteActorsCreatedBefore(@org.springframework.data.repository.query.Param("before") java.time.LocalDateTime before);
+
+    // Read aggregates are closed; locked so a concurrent mark-read waits and then counts this one too
+    @org.springframework.data.jpa.repository.Lock(jakarta.persistence.LockModeType.PESSIMISTIC_WRITE)
+    @org.springframework.data.jpa.repository.Query("SELECT n FROM Notification n WHERE n.recipient.id = :recipientId AND n.type = :type "
+            + "AND n.post.id = :postId AND n.read = false AND n.createdAt >= :since ORDER BY n.createdAt DESC, n.id DESC LIMIT 1")
+    Optional<Notification> findAggregate(@org.springframework.data.repository.query.Param("recipientId") Long recipientId,
+            @org.springframework.data.repository.query.Param("type") NotificationType type,
+            @org.springframework.data.repository.query.Param("postId") Long postId,
+            @org.springframework.data.repository.query.Param("since") java.time.LocalDateTime since);
+
+    @org.springframework.data.jpa.repository.Lock(jakarta.persistence.LockModeType.PESSIMISTIC_WRITE)
+    @org.springframework.data.jpa.repository.Query("SELECT n FROM Notification n WHERE n.recipient.id = :recipientId AND n.type = :type "
+            + "AND n.post IS NULL AND n.read = false AND n.createdAt >= :since ORDER BY n.createdAt DESC, n.id DESC LIMIT 1")
+    Optional<Notification> findAggregateWithoutPost(@org.springframework.data.repository.query.Param("recipientId") Long recipientId,
+            @org.springframework.data.repository.query.Param("type") NotificationType type,
+            @org.springframework.data.repository.query.Param("since") java.time.LocalDateTime since);
+
+    // Changes only a notification not already in that state, so the unread counter moves once per change
+    @org.springframework.data.jpa.repository.Modifying(clearAutomatically = true)
+    @org.springframework.data.jpa.repository.Query("UPDATE Notification n SET n.read = :read "
+            + "WHERE n.id = :id AND n.recipient.id = :recipientId AND n.read <> :read")
+    int updateRead(@org.springframework.data.repository.query.Param("id") Long id,
+            @org.springframework.data.repository.query.Param("recipientId") Long recipientId,
+            @org.springframework.data.repository.query.Param("read") boolean read);
+
+    // Marks every unread notification of the recipient read and takes the same number off the unread counter,
+    // in one statement; returns how many changed
+    @org.springframework.data.jpa.repository.Query(value = "WITH updated AS (UPDATE notifications SET is_read = true "
+            + "WHERE recipient_id = :recipientId AND is_read = false RETURNING id), "
+            + "counted AS (UPDATE users SET unread_notifications = unread_notifications - (SELECT count(*) FROM updated) "
+            + "WHERE id = :recipientId AND EXISTS (SELECT 1 FROM updated)) "
+            + "SELECT count(*) FROM updated", nativeQuery = true)
+    long markAllRead(@org.springframework.data.repository.query.Param("recipientId") Long recipientId);
+
+    // As markAllRead, limited to the given ids; ids of other recipients' notifications are ignored
+    @org.springframework.data.jpa.repository.Query(value = "WITH updated AS (UPDATE notifications SET is_read = true "
+            + "WHERE recipient_id = :recipientId AND is_read = false AND id IN (:ids) RETURNING id), "
+            + "counted AS (UPDATE users SET unread_notifications = unread_notifications - (SELECT count(*) FROM updated) "
+            + "WHERE id = :recipientId AND EXISTS (SELECT 1 FROM updated)) "
+            + "SELECT count(*) FROM updated", nativeQuery = true)
+    long markReadByIds(@org.springframework.data.repository.query.Param("ids") java.util.Collection<Long> ids,
+            @org.springframework.data.repository.query.Param("recipientId") Long recipientId);
+
+    @org.springframework.data.jpa.repository.Query("SELECT new com.zone01.backend.dto.NotificationDTO(n.id, n.type, n.message, n.read, n.post.id, "
+            + "a.id, a.username, a.avatarUrl, n.targetId, n.createdAt, n.lastActivityAt, n.actorCount, n.recentActors) "
+            + "FROM Notification n LEFT JOIN n.actor a WHERE n.id IN :ids")
+    List<NotificationDTO> findDtosByIdIn(@org.springframework.data.repository.query.Param("ids") java.util.Collection<Long> ids);
+
+    @org.springframework.data.jpa.repository.Query("SELECT n.lastActivityAt FROM Notification n WHERE n.id = :id AND n.recipient.id = :recipientId")
+    Optional<java.time.LocalDateTime> findLastActivityAtByIdAndRecipientId(@org.springframework.data.repository.query.Param("id") Long id,
+            @org.springframework.data.repository.query.Param("recipientId") Long recipientId);
+
+    @org.springframework.data.jpa.repository.Query("SELECT new com.zone01.backend.dto.NotificationDTO(n.id, n.type, n.message, n.read, n.post.id, "
+            + "a.id, a.username, a.avatarUrl, n.targetId, n.createdAt, n.lastActivityAt, n.actorCount, n.recentActors) "
+            + "FROM Notification n LEFT JOIN n.actor a WHERE n.recipient.id = :recipientId AND n.lastActivityAt >= :since "
+            + "ORDER BY n.lastActivityAt, n.id")
+    List<NotificationDTO> findDtosByRecipientIdActiveSince(@org.springframework.data.repository.query.Param("recipientId") Long recipientId,
+            @org.springframework.data.repository.query.Param("since") java.time.LocalDateTime since,
+            org.springframework.data.domain.Pageable pageable);
+
+    interface CreatedNotification {
+        Long getId();
+
+        Long getRecipientId();
+    }
+
+    // Notifies the next chunk of subscribers in id order and returns what was inserted. Ids are taken a whole
+    // sequence block at a time, as Hibernate's pooled generator does, rather than burning a block per row
+    @org.springframework.data.jpa.repository.Query(value = "WITH chunk AS (SELECT s.subscriber_id, row_number() OVER (ORDER BY s.subscriber_id) - 1 AS n "
+            + "FROM subscriptions s JOIN posts p ON p.user_id = s.target_id "
+            + "WHERE p.id = :postId AND p.hidden = false AND s.subscriber_id > :afterSubscriberId AND s.subscriber_id <> p.user_id "
+            + "ORDER BY s.subscriber_id LIMIT :limit), "
+            + "blocks AS (SELECT b, nextval('notifications_seq') AS hi FROM generate_series(0, "
+            + "((SELECT count(*) FROM chunk) + " + Notification.ID_BLOCK_SIZE + " - 1) / " + Notification.ID_BLOCK_SIZE + " - 1) b), "
+            + "inserted AS (INSERT INTO notifications (id, recipient_id, actor_id, post_id, type, message, is_read, created_at, last_activity_at) "
+            + "SELECT bl.hi - " + Notification.ID_BLOCK_SIZE + " + 1 + c.n % " + Notification.ID_BLOCK_SIZE + ", "
+            + "c.subscriber_id, p.user_id, p.id, 'NEW_POST', LEFT(u.username || ' published a new post: ' || p.title, 1000), false, :createdAt, :createdAt "
+            + "FROM chunk c JOIN blocks bl ON bl.b = c.n / " + Notification.ID_BLOCK_SIZE + " "
+            + "JOIN posts p ON p.id = :postId JOIN users u ON u.id = p.user_id RETURNING id, recipient_id), "
+            + "counted AS (UPDATE users SET unread_notifications = unread_notifications + 1 "
+            + "WHERE id IN (SELECT recipient_id FROM inserted)) "
+            + "SELECT id AS \"id\", recipient_id AS \"recipientId\" FROM inserted", nativeQuery = true)
+    List<CreatedNotification> insertNewPostNotifications(@org.springframework.data.repository.query.Param("postId") Long postId,
+            @org.springframework.data.repository.query.Param("afterSubscriberId") long afterSubscriberId,
+            @org.springframework.data.repository.query.Param("limit") int limit,
+            @org.springframework.data.repository.query.Param("createdAt") java.time.LocalDateTime createdAt);
 }
@@ -0,0 +1,37 @@
+package com.zone01.backend.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.zone01.backend.entity.OutboxEvent;
+
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    // Row locks held until the caller's transaction ends; concurrent dispatchers skip them instead of waiting
+    @Query(value = "SELECT * FROM outbox_events WHERE processed_at IS NULL AND available_at <= :now "
+            + "AND attempts < :maxAttempts ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<OutboxEvent> claimBatch(@Param("now") LocalDateTime now, @Param("maxAttempts") int maxAttempts,
+            @Param("limit") int limit);
+
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.attempts = e.attempts + 1, e.lastError = :error, "
+            + "e.availableAt = :retryAt WHERE e.id = :id")
+    int recordFailure(@Param("id") Long id, @Param("error") String error, @Param("retryAt") LocalDateTime retryAt);
+
+    @Modifying
+    @Query(value = "DELETE FROM outbox_events WHERE processed_at < :before", nativeQuery = true)
+    int deleteProcessedBefore(@Param("before") LocalDateTime before);
+
+    @Query(value = "SELECT COUNT(*) FROM outbox_events WHERE processed_at IS NULL AND attempts < :maxAttempts",
+            nativeQuery = true)
+    long countPending(@Param("maxAttempts") int maxAttempts);
+
+    @Query(value = "SELECT COUNT(*) FROM outbox_events WHERE processed_at IS NULL AND attempts >= :maxAttempts",
+            nativeQuery = true)
+    long countDead(@Param("maxAttempts") int maxAttempts);
+}
@@ -0,0 +1,25 @@
+package com.zone01.backend.repository;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.zone01.backend.dto.PostMediaDTO;
+import com.zone01.backend.entity.PostMedia;
+
+@Repository
+public interface PostMediaRepository extends JpaRepository<PostMedia, Long> {
+
+    @Query("SELECT new com.zone01.backend.dto.PostMediaDTO(m.id, m.mediaUrl, m.mediaType, m.post.id) "
+            + "FROM PostMedia m WHERE m.post.id IN :postIds ORDER BY m.id")
+    List<PostMediaDTO> findDtosByPostIdIn(@Param("postIds") Collection<Long> postIds);
+
+    boolean existsByMediaUrl(String mediaUrl);
+
+    @Query("SELECT m.mediaUrl FROM PostMedia m WHERE m.post.author.id = :authorId")
+    List<String> findUrlsByAuthorId(@Param("authorId") Long authorId);
+}
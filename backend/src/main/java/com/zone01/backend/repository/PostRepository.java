@@ -1,36 +1,219 @@
 package com.zone01.backend.repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import com.zone01.backend.dto.PostDTO;
+import com.zone01.backend.dto.PostSummaryDTO;
 import com.zone01.backend.entity.Post;
 import com.zone01.backend.entity.User;
 
 @Repository
 public interface PostRepository extends JpaRepository<Post, Long> {
 
+        // Read-only projections: select only the columns the DTO needs, no entity hydration
+        String POST_DTO_SELECT = "SELECT new com.zone01.backend.dto.PostDTO(p.id, p.title, p.content, a.id, a.username, "
+                        + "a.avatarUrl, p.likeCount, p.commentCount, p.createdAt, p.updatedAt, p.hidden) ";
+
+        // List endpoints get the stored excerpt instead of the full content
+        String POST_SUMMARY_SELECT = "SELECT new com.zone01.backend.dto.PostSummaryDTO(p.id, p.title, p.excerpt, p.excerptTruncated, "
+                        + "a.id, a.username, a.avatarUrl, p.likeCount, p.commentCount, p.createdAt, p.updatedAt, p.hidden) ";
+
         List<Post> findByAuthor(User author);
 
         List<Post> findByAuthorId(Long authorId);
 
         List<Post> findByTitleContainingIgnoreCase(String keyword);
 
-        @org.springframework.data.jpa.repository.Query("SELECT p FROM Post p JOIN FETCH p.author WHERE p.hidden = false ORDER BY p.createdAt DESC")
-        List<Post> findAllVisibleByOrderByCreatedAtDesc();
+        @org.springframework.data.jpa.repository.Query(POST_SUMMARY_SELECT + "FROM Post p JOIN p.author a WHERE p.hidden = false ORDER BY p.createdAt DESC")
+        List<PostSummaryDTO> findAllVisibleByOrderByCreatedAtDesc();
+
+        @org.springframework.data.jpa.repository.Query(POST_SUMMARY_SELECT + "FROM Post p JOIN p.author a WHERE p.hidden = false ORDER BY p.createdAt DESC, p.id DESC")
+        List<PostSummaryDTO> findVisiblePage(Pageable pageable);
+
+        @org.springframework.data.jpa.repository.Query(POST_SUMMARY_SELECT + "FROM Post p JOIN p.author a WHERE p.hidden = false AND (p.createdAt, p.id) < (:createdAt, :id) ORDER BY p.createdAt DESC, p.id DESC")
+        List<PostSummaryDTO> findVisiblePageBefore(
+                        @org.springframework.data.repository.query.Param("createdAt") LocalDateTime createdAt,
+                        @org.springframework.data.repository.query.Param("id") Long id,
+                        Pageable pageable);
+
+        @org.springframework.data.jpa.repository.Query(POST_SUMMARY_SELECT + "FROM Post p JOIN p.author a WHERE a.id = :authorId AND p.hidden = false ORDER BY p.createdAt DESC, p.id DESC")
+        List<PostSummaryDTO> findVisibleAuthorPage(
+                        @org.springframework.data.repository.query.Param("authorId") Long authorId,
+                        Pageable pageable);
+
+        @org.springframework.data.jpa.repository.Query(POST_SUMMARY_SELECT + "FROM Post p JOIN p.author a WHERE a.id = :authorId AND p.hidden = false AND (p.createdAt, p.id) < (:createdAt, :id) ORDER BY p.createdAt DESC, p.id DESC")
+        List<PostSummaryDTO> findVisibleAuthorPageBefore(
+                        @org.springframework.data.repository.query.Param("authorId") Long authorId,
+                        @org.springframework.data.repository.query.Param("createdAt") LocalDateTime createdAt,
+                        @org.springframework.data.repository.query.Param("id") Long id,
+                        Pageable pageable);
+
+        // The reader's followed celebrities in one query: at most :cap posts from each author's index, then one sort
+        @org.springframework.data.jpa.repository.Query(POST_SUMMARY_SELECT + "FROM Subscription s JOIN LATERAL (SELECT r.id AS id FROM Post r "
+                        + "WHERE r.author = s.target AND r.hidden = false ORDER BY r.createdAt DESC, r.id DESC LIMIT :cap) c "
+                        + "JOIN Post p ON p.id = c.id JOIN p.author a WHERE s.subscriber.id = :userId AND s.target.celebrity = true "
+                        + "ORDER BY p.createdAt DESC, p.id DESC")
+        List<PostSummaryDTO> findVisibleCelebrityPage(
+                        @org.springframework.data.repository.query.Param("userId") Long userId,
+                        @org.springframework.data.repository.query.Param("cap") int cap,
+                        Pageable pageable);
+
+        @org.springframework.data.jpa.repository.Query(POST_SUMMARY_SELECT + "FROM Subscription s JOIN LATERAL (SELECT r.id AS id FROM Post r "
+                        + "WHERE r.author = s.target AND r.hidden = false AND (r.createdAt, r.id) < (:createdAt, :id) "
+                        + "ORDER BY r.createdAt DESC, r.id DESC LIMIT :cap) c "
+                        + "JOIN Post p ON p.id = c.id JOIN p.author a WHERE s.subscriber.id = :userId AND s.target.celebrity = true "
+                        + "ORDER BY p.createdAt DESC, p.id DESC")
+        List<PostSummaryDTO> findVisibleCelebrityPageBefore(
+                        @org.springframework.data.repository.query.Param("userId") Long userId,
+                        @org.springframework.data.repository.query.Param("createdAt") LocalDateTime createdAt,
+                        @org.springframework.data.repository.query.Param("id") Long id,
+                        @org.springframework.data.repository.query.Param("cap") int cap,
+                        Pageable pageable);
 
         @org.springframework.data.jpa.repository.Query("SELECT p FROM Post p JOIN FETCH p.author ORDER BY p.createdAt DESC")
         List<Post> findAllByOrderByCreatedAtDesc();
 
+        @org.springframework.data.jpa.repository.Query(POST_DTO_SELECT + "FROM Post p JOIN p.author a ORDER BY p.createdAt DESC")
+        List<PostDTO> findAllDtosByOrderByCreatedAtDesc();
+
+        // Read-only server-side cursor for exports; callers must consume it inside a transaction and close it
+        @org.springframework.data.jpa.repository.QueryHints({
+                        @jakarta.persistence.QueryHint(name = org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE, value = "500"),
+                        @jakarta.persistence.QueryHint(name = org.hibernate.jpa.HibernateHints.HINT_READ_ONLY, value = "true") })
+        @org.springframework.data.jpa.repository.Query("SELECT p FROM Post p JOIN FETCH p.author ORDER BY p.id")
+        java.util.stream.Stream<Post> streamAllForExport();
+
         List<Post> findByAuthorOrderByCreatedAtDesc(User author);
 
         long countByAuthor(User author);
 
         long countByAuthorId(Long authorId);
 
-        @org.springframework.data.jpa.repository.Query("SELECT p FROM Post p JOIN FETCH p.author WHERE LOWER(p.author.username) = LOWER(:username) AND p.hidden = false ORDER BY p.createdAt DESC")
-        List<Post> findVisibleByAuthorUsernameOrderByCreatedAtDesc(
+        interface SearchHit {
+                Long getId();
+
+                Float getRank();
+        }
+
+        // Ranked full-text match over the generated posts.search_vector column (GIN indexed, see DatabaseConfig)
+        @org.springframework.data.jpa.repository.Query(value = "SELECT p.id AS id, ts_rank_cd(p.search_vector, q) AS rank "
+                        + "FROM posts p, websearch_to_tsquery('english', :query) q "
+                        + "WHERE p.search_vector @@ q AND p.hidden = false "
+                        + "ORDER BY rank DESC, p.id DESC LIMIT :limit", nativeQuery = true)
+        List<SearchHit> searchVisible(@org.springframework.data.repository.query.Param("query") String query,
+                        @org.springframework.data.repository.query.Param("limit") int limit);
+
+        @org.springframework.data.jpa.repository.Query(value = "SELECT p.id AS id, ts_rank_cd(p.search_vector, q) AS rank "
+                        + "FROM posts p, websearch_to_tsquery('english', :query) q "
+                        + "WHERE p.search_vector @@ q AND p.hidden = false "
+                        + "AND (ts_rank_cd(p.search_vector, q), p.id) < (CAST(:rank AS real), :id) "
+                        + "ORDER BY rank DESC, p.id DESC LIMIT :limit", nativeQuery = true)
+        List<SearchHit> searchVisibleAfter(@org.springframework.data.repository.query.Param("query") String query,
+                        @org.springframework.data.repository.query.Param("rank") float rank,
+                        @org.springframework.data.repository.query.Param("id") Long id,
+                        @org.springframework.data.repository.query.Param("limit") int limit);
+
+        @org.springframework.data.jpa.repository.Query(POST_SUMMARY_SELECT + "FROM Post p JOIN p.author a WHERE p.id IN :ids")
+        List<PostSummaryDTO> findSummariesByIdIn(
+                        @org.springframework.data.repository.query.Param("ids") java.util.Collection<Long> ids);
+
+        @org.springframework.data.jpa.repository.Modifying
+        @org.springframework.data.jpa.repository.Query("UPDATE Post p SET p.commentCount = p.commentCount + :delta WHERE p.id = :id")
+        int adjustCommentCount(@org.springframework.data.repository.query.Param("id") Long id,
+                        @org.springframework.data.repository.query.Param("delta") long delta);
+
+        interface LikeCountDrift {
+                Long getId();
+
+                Long getRecorded();
+
+                Long getActual();
+        }
+
+        @org.springframework.data.jpa.repository.Query(value = "SELECT p.id AS id, p.like_count AS recorded, c.total AS actual FROM posts p "
+                        + "JOIN (SELECT r.id, COUNT(l.id) AS total FROM posts r LEFT JOIN likes l ON l.post_id = r.id GROUP BY r.id) c "
+                        + "ON c.id = p.id WHERE p.like_count <> c.total", nativeQuery = true)
+        List<LikeCountDrift> findLikeCountDrift();
+
+        // Only rows whose counter and like rows both still match the observation are repaired
+        @jakarta.transaction.Transactional
+        @org.springframework.data.jpa.repository.Modifying
+        @org.springframework.data.jpa.repository.Query(value = "UPDATE posts p SET like_count = d.actual "
+                        + "FROM unnest(CAST(:ids AS bigint[]), CAST(:recorded AS bigint[]), CAST(:actual AS bigint[])) "
+                        + "AS d(id, recorded, actual) WHERE p.id = d.id AND p.like_count = d.recorded "
+                        + "AND (SELECT COUNT(*) FROM likes l WHERE l.post_id = d.id) = d.actual", nativeQuery = true)
+        int repairLikeCounts(@org.springframework.data.repository.query.Param("ids") Long[] ids,
+                        @org.springframework.data.repository.query.Param("recorded") Long[] recorded,
+                        @org.springframework.data.repository.query.Param("actual") Long[] actual);
+
+        @jakarta.transaction.Transactional
+        @org.springframework.data.jpa.repository.Modifying
+        @org.springframework.data.jpa.repository.Query(value = "UPDATE posts p SET comment_count = c.total FROM "
+                        + "(SELECT r.id, COUNT(m.id) AS total FROM posts r LEFT JOIN comments m ON m.post_id = r.id GROUP BY r.id) c "
+                        + "WHERE c.id = p.id AND p.comment_count <> c.total", nativeQuery = true)
+        int reconcileCommentCounts();
+
+        // Fields a post representation depends on, for ETags without building the DTO
+        interface PostVersion {
+                Long getId();
+
+                java.time.LocalDateTime getUpdatedAt();
+
+                Long getLikeCount();
+
+                Long getCommentCount();
+
+                Boolean getHidden();
+
+                java.time.LocalDateTime getAuthorUpdatedAt();
+        }
+
+        String POST_VERSION_SELECT = "SELECT p.id AS id, p.updatedAt AS updatedAt, p.likeCount AS likeCount, "
+                        + "p.commentCount AS commentCount, p.hidden AS hidden, a.updatedAt AS authorUpdatedAt ";
+
+        @org.springframework.data.jpa.repository.Query(POST_VERSION_SELECT + "FROM Post p JOIN p.author a WHERE p.id = :id")
+        java.util.Optional<PostVersion> findVersionById(@org.springframework.data.repository.query.Param("id") Long id);
+
+        // What a page of an author's posts depends on, aggregated over that page alone; ids are for the
+        // state held outside the database, pending likes and the viewer's liked set
+        interface PageVersion {
+                Long getPostCount();
+
+                String getDigest();
+
+                Long[] getIds();
+
+                java.time.LocalDateTime getAuthorUpdatedAt();
+        }
+
+        String AUTHOR_PAGE_VERSION_SELECT = "SELECT count(v.id) AS postCount, md5(string_agg(concat_ws(':', v.id, v.updated_at, "
+                        + "v.like_count, v.comment_count), ',' ORDER BY v.created_at DESC, v.id DESC)) AS digest, "
+                        + "array_agg(v.id) AS ids, (SELECT u.updated_at FROM users u WHERE u.id = :authorId) AS authorUpdatedAt "
+                        + "FROM (SELECT p.id, p.created_at, p.updated_at, p.like_count, p.comment_count FROM posts p "
+                        + "WHERE p.user_id = :authorId AND p.hidden = false ";
+
+        @org.springframework.data.jpa.repository.Query(value = AUTHOR_PAGE_VERSION_SELECT
+                        + "ORDER BY p.created_at DESC, p.id DESC LIMIT :limit) v", nativeQuery = true)
+        PageVersion findVisibleAuthorPageVersion(
+                        @org.springframework.data.repository.query.Param("authorId") Long authorId,
+                        @org.springframework.data.repository.query.Param("limit") int limit);
+
+        @org.springframework.data.jpa.repository.Query(value = AUTHOR_PAGE_VERSION_SELECT
+                        + "AND (p.created_at, p.id) < (:createdAt, :id) ORDER BY p.created_at DESC, p.id DESC LIMIT :limit) v",
+                        nativeQuery = true)
+        PageVersion findVisibleAuthorPageVersionBefore(
+                        @org.springframework.data.repository.query.Param("authorId") Long authorId,
+                        @org.springframework.data.repository.query.Param("createdAt") LocalDateTime createdAt,
+                        @org.springframework.data.repository.query.Param("id") Long id,
+                        @org.springframework.data.repository.query.Param("limit") int limit);
+
+        @org.springframework.data.jpa.repository.Query(POST_SUMMARY_SELECT + "FROM Post p JOIN p.author a WHERE LOWER(a.username) = LOWER(:username) AND p.hidden = false ORDER BY p.createdAt DESC")
+        List<PostSummaryDTO> findVisibleByAuthorUsernameOrderByCreatedAtDesc(
                         @org.springframework.data.repository.query.Param("username") String username);
 
         @org.springframework.data.jpa.repository.Query("SELECT p FROM Post p JOIN FETCH p.author WHERE p.author.id IN :authorIds AND p.hidden = false ORDER BY p.createdAt DESC")
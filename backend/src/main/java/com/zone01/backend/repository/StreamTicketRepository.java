@@ -0,0 +1,27 @@
+package com.zone01.backend.repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.zone01.backend.entity.StreamTicket;
+
+import jakarta.transaction.Transactional;
+
+public interface StreamTicketRepository extends JpaRepository<StreamTicket, String> {
+
+    // Deleting is what makes a ticket single use: of two concurrent redeems only one gets the row back
+    @Transactional
+    @Query(value = "DELETE FROM stream_tickets t USING users u WHERE t.ticket_hash = :hash AND u.id = t.user_id "
+            + "AND t.expires_at > :now RETURNING u.uuid", nativeQuery = true)
+    Optional<String> redeem(@Param("hash") String hash, @Param("now") LocalDateTime now);
+
+    @Transactional
+    @Modifying
+    @Query(value = "DELETE FROM stream_tickets WHERE expires_at <= :now", nativeQuery = true)
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
@@ -16,5 +16,6 @@ public interface SubscriptionRepository extends JpaRepository<Subscription, Long
     List<Subscription> findByTarget(User target);
     List<Subscription> findByTargetId(Long targetId);
     long countByTarget(User target);
+    long countByTargetId(Long targetId);
     long countBySubscriber(User subscriber);
 }
@@ -0,0 +1,84 @@
+package com.zone01.backend.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.zone01.backend.dto.PostSummaryDTO;
+import com.zone01.backend.entity.TimelineEntry;
+
+import jakarta.transaction.Transactional;
+
+public interface TimelineRepository extends JpaRepository<TimelineEntry, Long> {
+
+    @Query(PostRepository.POST_SUMMARY_SELECT + "FROM TimelineEntry t JOIN Post p ON p.id = t.postId JOIN p.author a "
+            + "WHERE t.userId = :userId AND p.hidden = false ORDER BY t.createdAt DESC, t.postId DESC")
+    List<PostSummaryDTO> findTimelinePage(@Param("userId") Long userId, Pageable pageable);
+
+    @Query(PostRepository.POST_SUMMARY_SELECT + "FROM TimelineEntry t JOIN Post p ON p.id = t.postId JOIN p.author a "
+            + "WHERE t.userId = :userId AND p.hidden = false AND (t.createdAt, t.postId) < (:createdAt, :postId) "
+            + "ORDER BY t.createdAt DESC, t.postId DESC")
+    List<PostSummaryDTO> findTimelinePageBefore(
+            @Param("userId") Long userId,
+            @Param("createdAt") LocalDateTime createdAt,
+            @Param("postId") Long postId,
+            Pageable pageable);
+
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO timeline_entries (user_id, post_id, author_id, created_at) "
+            + "SELECT s.subscriber_id, :postId, :authorId, :createdAt FROM subscriptions s WHERE s.target_id = :authorId "
+            + "ON CONFLICT (user_id, post_id) DO NOTHING", nativeQuery = true)
+    int fanOut(@Param("postId") Long postId, @Param("authorId") Long authorId,
+            @Param("createdAt") LocalDateTime createdAt);
+
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO timeline_entries (user_id, post_id, author_id, created_at) "
+            + "SELECT :userId, p.id, p.user_id, p.created_at FROM posts p "
+            + "WHERE p.user_id = :authorId AND p.hidden = false ORDER BY p.created_at DESC, p.id DESC LIMIT :limit "
+            + "ON CONFLICT (user_id, post_id) DO NOTHING", nativeQuery = true)
+    int backfill(@Param("userId") Long userId, @Param("authorId") Long authorId, @Param("limit") int limit);
+
+    @Query(value = "SELECT EXISTS (SELECT 1 FROM timeline_entries)", nativeQuery = true)
+    boolean hasEntries();
+
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO timeline_entries (user_id, post_id, author_id, created_at) "
+            + "SELECT s.subscriber_id, p.id, p.user_id, p.created_at FROM subscriptions s "
+            + "JOIN posts p ON p.user_id = s.target_id WHERE s.target_id = :authorId AND p.id IN ("
+            + "SELECT r.id FROM posts r WHERE r.user_id = :authorId AND r.hidden = false "
+            + "ORDER BY r.created_at DESC, r.id DESC LIMIT :limit) "
+            + "ON CONFLICT (user_id, post_id) DO NOTHING", nativeQuery = true)
+    int fanOutRecent(@Param("authorId") Long authorId, @Param("limit") int limit);
+
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO timeline_entries (user_id, post_id, author_id, created_at) "
+            + "SELECT s.subscriber_id, p.id, p.user_id, p.created_at FROM subscriptions s "
+            + "JOIN posts p ON p.user_id = s.target_id JOIN users u ON u.id = s.target_id "
+            + "WHERE p.hidden = false AND u.is_celebrity = false "
+            + "ON CONFLICT (user_id, post_id) DO NOTHING", nativeQuery = true)
+    int rebuildAll();
+
+    @Transactional
+    @Modifying
+    @Query(value = "DELETE FROM timeline_entries WHERE user_id = :userId AND author_id = :authorId", nativeQuery = true)
+    int prune(@Param("userId") Long userId, @Param("authorId") Long authorId);
+
+    @Transactional
+    @Modifying
+    @Query(value = "DELETE FROM timeline_entries WHERE post_id = :postId", nativeQuery = true)
+    int deleteByPostId(@Param("postId") Long postId);
+
+    @Transactional
+    @Modifying
+    @Query(value = "DELETE FROM timeline_entries WHERE user_id = :userId OR author_id = :userId", nativeQuery = true)
+    int deleteByUserOrAuthor(@Param("userId") Long userId);
+}
@@ -2,18 +2,30 @@ package com.zone01.backend.repository;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.zone01.backend.entity.Role;
 import com.zone01.backend.entity.User;
 
+import jakarta.persistence.QueryHint;
+import jakarta.transaction.Transactional;
+
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
 
     Optional<User> findByUsernameIgnoreCase(String username);
 
+    @Query("SELECT u.id FROM User u WHERE LOWER(u.username) = LOWER(:username)")
+    Optional<Long> findIdByUsername(@Param("username") String username);
+
     Optional<User> findByUuid(String uuid);
 
     Optional<User> findByEmailIgnoreCase(String email);
@@ -22,5 +34,68 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
     boolean existsByEmailIgnoreCase(String email);
 
+    boolean existsByAvatarUrl(String avatarUrl);
+
     List<User> findByRole(Role role);
+
+    // Read-only server-side cursor for exports; callers must consume it inside a transaction and close it
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true") })
+    @Query("SELECT u FROM User u ORDER BY u.id")
+    Stream<User> streamAllForExport();
+
+    @Query("SELECT u.celebrity FROM User u WHERE u.id = :id")
+    Optional<Boolean> findCelebrityById(@Param("id") Long id);
+
+    @Modifying
+    @Query("UPDATE User u SET u.celebrity = :celebrity WHERE u.id = :id")
+    int updateCelebrity(@Param("id") Long id, @Param("celebrity") boolean celebrity);
+
+    @Modifying
+    @Query("UPDATE User u SET u.unreadNotifications = u.unreadNotifications + :delta WHERE u.id = :id")
+    int adjustUnreadNotifications(@Param("id") Long id, @Param("delta") long delta);
+
+    @Modifying
+    @Query("UPDATE User u SET u.unreadNotifications = u.unreadNotifications + 1 WHERE u.id IN :ids")
+    int incrementUnreadNotifications(@Param("ids") java.util.Collection<Long> ids);
+
+    // Recounts one user's unread notifications; cheaper than tracking a bulk change row by row
+    @Modifying
+    @Query(value = "UPDATE users SET unread_notifications = (SELECT COUNT(*) FROM notifications n "
+            + "WHERE n.recipient_id = :id AND n.is_read = false) WHERE id = :id", nativeQuery = true)
+    int recountUnreadNotifications(@Param("id") Long id);
+
+    // Called before a post is deleted: its notifications go with it. The rows are locked so a
+    // concurrent mark-as-read cannot release the same notification twice
+    @Modifying
+    @Query(value = "UPDATE users u SET unread_notifications = u.unread_notifications - c.total FROM "
+            + "(SELECT d.recipient_id, COUNT(*) AS total FROM (SELECT n.recipient_id FROM notifications n "
+            + "WHERE n.post_id = :postId AND n.is_read = false FOR UPDATE) d GROUP BY d.recipient_id) c "
+            + "WHERE u.id = c.recipient_id", nativeQuery = true)
+    int releaseUnreadNotificationsForPost(@Param("postId") Long postId);
+
+    // Same for a user about to be deleted: notifications they caused and those about their posts
+    @Modifying
+    @Query(value = "UPDATE users u SET unread_notifications = u.unread_notifications - c.total FROM "
+            + "(SELECT d.recipient_id, COUNT(*) AS total FROM (SELECT n.recipient_id FROM notifications n "
+            + "LEFT JOIN posts p ON p.id = n.post_id WHERE (n.actor_id = :userId OR p.user_id = :userId) "
+            + "AND n.recipient_id <> :userId AND n.is_read = false FOR UPDATE OF n) d GROUP BY d.recipient_id) c "
+            + "WHERE u.id = c.recipient_id", nativeQuery = true)
+    int releaseUnreadNotificationsForUser(@Param("userId") Long userId);
+
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE users u SET unread_notifications = c.total FROM "
+            + "(SELECT r.id, COUNT(n.id) AS total FROM users r LEFT JOIN notifications n "
+            + "ON n.recipient_id = r.id AND n.is_read = false GROUP BY r.id) c "
+            + "WHERE c.id = u.id AND u.unread_notifications <> c.total", nativeQuery = true)
+    int reconcileUnreadNotificationCounts();
+
+    // Returns the ids of authors that dropped below the threshold
+    @Query(value = "WITH flags AS (SELECT u.id, (SELECT COUNT(*) FROM subscriptions s WHERE s.target_id = u.id) >= :threshold AS celebrity "
+            + "FROM users u), changed AS (UPDATE users u SET is_celebrity = f.celebrity FROM flags f "
+            + "WHERE f.id = u.id AND u.is_celebrity <> f.celebrity RETURNING u.id, u.is_celebrity) "
+            + "SELECT id FROM changed WHERE is_celebrity = false", nativeQuery = true)
+    List<Long> refreshCelebrityFlags(@Param("threshold") long threshold);
 }
@@ -11,6 +11,7 @@ import org.springframework.security.web.authentication.WebAuthenticationDetailsS
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
+import com.zone01.backend.service.StreamTicketService;
 import com.zone01.backend.util.JwtUtil;
 
 import jakarta.servlet.FilterChain;
@@ -22,7 +23,8 @@ import jakarta.servlet.http.HttpServletResponse;
  * JwtAuthenticationFilter - Intercepts every request to check for JWT token
  * 
  * How it works:
- * 1. Extract JWT token from Authorization header
+ * 1. Extract JWT token from Authorization header (or redeem the single-use
+ *    ticket the notification stream is opened with)
  * 2. Validate token
  * 3. Load user from database
  * 4. Set authentication in SecurityContext
@@ -31,12 +33,17 @@ import jakarta.servlet.http.HttpServletResponse;
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
+    private static final String STREAM_PATH = "/api/notifications/stream";
+
     @Autowired
     private JwtUtil jwtUtil;
 
     @Autowired
     private UserDetailsService userDetailsService;
 
+    @Autowired
+    private StreamTicketService streamTicketService;
+
     @Override
     protected void doFilterInternal(
             HttpServletRequest request,
@@ -48,6 +55,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         String username = null;
         String jwt = null;
+        boolean ticketed = false;
 
         // 2. Check if header starts with "Bearer "
         if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
@@ -60,6 +68,15 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             } catch (Exception e) {
                 // Token extraction failed
             }
+        } else if (STREAM_PATH.equals(request.getRequestURI()) && request.getParameter("ticket") != null) {
+            // EventSource cannot set headers, so the notification stream takes a ticket from the query string;
+            // never the JWT itself, which would end up in access logs and browser history
+            try {
+                username = streamTicketService.redeem(request.getParameter("ticket")).orElse(null);
+                ticketed = true;
+            } catch (Exception e) {
+                // Ticket redemption failed
+            }
         }
 
         // 3. If we have username and user is not already authenticated
@@ -69,7 +86,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                 UserDetails userDetails = this.userDetailsService.loadUserByUsername(username);
 
                 // 4. Validate token
-                if (jwtUtil.validateToken(jwt, userDetails) && userDetails.isAccountNonLocked()) {
+                if ((ticketed || jwtUtil.validateToken(jwt, userDetails)) && userDetails.isAccountNonLocked()) {
 
                     // Create authentication token
                     UsernamePasswordAuthenticationToken authenticationToken = new UsernamePasswordAuthenticationToken(
@@ -0,0 +1,245 @@
+package com.zone01.backend.service;
+
+import java.io.BufferedWriter;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.zone01.backend.dto.PostDTO;
+import com.zone01.backend.dto.PostMediaDTO;
+import com.zone01.backend.dto.UserDTO;
+import com.zone01.backend.entity.Post;
+import com.zone01.backend.entity.User;
+import com.zone01.backend.repository.PostMediaRepository;
+import com.zone01.backend.repository.PostRepository;
+import com.zone01.backend.repository.UserRepository;
+
+import jakarta.persistence.EntityManager;
+
+/**
+ * Writes every post or user to an output stream as NDJSON or CSV for the
+ * admin exports. Rows are read through a server-side cursor and written in
+ * chunks; after each chunk the persistence context is cleared, so memory
+ * stays flat however large the table is.
+ */
+@Service
+public class AdminExportService {
+
+    public enum Format {
+        NDJSON("application/x-ndjson", "ndjson"),
+        CSV("text/csv", "csv");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String contentType() {
+            return contentType;
+        }
+
+        public String extension() {
+            return extension;
+        }
+
+        public static Format parse(String value) {
+            try {
+                return valueOf(value.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException ex) {
+                throw new IllegalArgumentException("Unsupported export format: " + value);
+            }
+        }
+    }
+
+    // Matches the fetch size on the export queries, so each chunk is one round trip
+    private static final int CHUNK_SIZE = 500;
+
+    private static final List<String> POST_COLUMNS = List.of("id", "title", "content", "authorId",
+            "authorUsername", "likesCount", "commentsCount", "hidden", "createdAt", "updatedAt", "media");
+    private static final List<String> USER_COLUMNS = List.of("id", "username", "email", "role", "banned",
+            "avatarUrl", "createdAt", "updatedAt");
+
+    @FunctionalInterface
+    private interface ChunkWriter<T> {
+        void write(List<T> chunk) throws IOException;
+    }
+
+    @FunctionalInterface
+    private interface RowWriter<T> {
+        void write(T row) throws IOException;
+    }
+
+    private final PostRepository postRepository;
+    private final UserRepository userRepository;
+    private final PostMediaRepository postMediaRepository;
+    private final LikeCounterBuffer likeCounterBuffer;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectWriter jsonWriter;
+    private final ObjectMapper objectMapper;
+
+    public AdminExportService(PostRepository postRepository, UserRepository userRepository,
+            PostMediaRepository postMediaRepository, LikeCounterBuffer likeCounterBuffer,
+            EntityManager entityManager, PlatformTransactionManager transactionManager,
+            ObjectMapper objectMapper) {
+        this.postRepository = postRepository;
+        this.userRepository = userRepository;
+        this.postMediaRepository = postMediaRepository;
+        this.likeCounterBuffer = likeCounterBuffer;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.objectMapper = objectMapper;
+        // Flushing is left to the chunk loop rather than done per row
+        this.jsonWriter = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    public void writePosts(Format format, OutputStream out) throws IOException {
+        if (format == Format.CSV) {
+            Writer writer = csvWriter(out, POST_COLUMNS);
+            export(postRepository::streamAllForExport, this::toPostDtos, writer,
+                    post -> writeCsvRow(writer, post.getId(), post.getTitle(), post.getContent(),
+                            post.getAuthorId(), post.getAuthorUsername(), post.getLikesCount(),
+                            post.getCommentsCount(), post.isHidden(), post.getCreatedAt(), post.getUpdateAt(),
+                            post.getMedia().stream().map(PostMediaDTO::getMediaUrl)
+                                    .collect(Collectors.joining(" "))));
+            writer.flush();
+        } else {
+            JsonGenerator generator = ndjsonGenerator(out);
+            export(postRepository::streamAllForExport, this::toPostDtos, generator,
+                    post -> jsonWriter.writeValue(generator, post));
+            finishNdjson(generator);
+        }
+    }
+
+    public void writeUsers(Format format, OutputStream out) throws IOException {
+        if (format == Format.CSV) {
+            Writer writer = csvWriter(out, USER_COLUMNS);
+            export(userRepository::streamAllForExport, users -> users.stream().map(UserDTO::new).toList(), writer,
+                    user -> writeCsvRow(writer, user.getId(), user.getUsername(), user.getEmail(),
+                            user.getRole(), user.isBanned(), user.getAvatarUrl(), user.getCreatedAt(),
+                            user.getUpdatedAt()));
+            writer.flush();
+        } else {
+            JsonGenerator generator = ndjsonGenerator(out);
+            export(userRepository::streamAllForExport, users -> users.stream().map(UserDTO::new).toList(),
+                    generator, user -> jsonWriter.writeValue(generator, user));
+            finishNdjson(generator);
+        }
+    }
+
+    private <E, D> void export(Supplier<Stream<E>> query, Function<List<E>, List<D>> toDtos, Flushable output,
+            RowWriter<D> rowWriter) throws IOException {
+        ChunkWriter<E> chunkWriter = chunk -> {
+            for (D row : toDtos.apply(chunk)) {
+                rowWriter.write(row);
+            }
+            output.flush();
+        };
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                try (Stream<E> rows = query.get()) {
+                    List<E> chunk = new ArrayList<>(CHUNK_SIZE);
+                    Iterator<E> iterator = rows.iterator();
+                    while (iterator.hasNext()) {
+                        chunk.add(iterator.next());
+                        if (chunk.size() == CHUNK_SIZE || !iterator.hasNext()) {
+                            chunkWriter.write(chunk);
+                            chunk.clear();
+                            // Detach what was written so the persistence context does not grow with the table
+                            entityManager.clear();
+                        }
+                    }
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+            });
+        } catch (UncheckedIOException ex) {
+            throw ex.getCause();
+        }
+    }
+
+    // Media is loaded per chunk rather than through each post's lazy collection
+    private List<PostDTO> toPostDtos(List<Post> posts) {
+        Map<Long, List<PostMediaDTO>> mediaByPost = postMediaRepository
+                .findDtosByPostIdIn(posts.stream().map(Post::getId).toList()).stream()
+                .collect(Collectors.groupingBy(PostMediaDTO::getPostId));
+        List<PostDTO> dtos = new ArrayList<>(posts.size());
+        for (Post post : posts) {
+            PostDTO dto = new PostDTO(post, null);
+            dto.setMedia(mediaByPost.getOrDefault(post.getId(), new ArrayList<>()));
+            dto.withCounts(dto.getLikesCount() + likeCounterBuffer.pending(post.getId()), dto.getCommentsCount());
+            dtos.add(dto);
+        }
+        return dtos;
+    }
+
+    private JsonGenerator ndjsonGenerator(OutputStream out) throws IOException {
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(out);
+        generator.setRootValueSeparator(new SerializedString("\n"));
+        return generator;
+    }
+
+    private static void finishNdjson(JsonGenerator generator) throws IOException {
+        generator.writeRaw('\n');
+        generator.flush();
+    }
+
+    private static Writer csvWriter(OutputStream out, List<String> columns) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writer.write(String.join(",", columns));
+        writer.write("\r\n");
+        return writer;
+    }
+
+    private static void writeCsvRow(Writer writer, Object... values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writer.write(csvField(values[i]));
+        }
+        writer.write("\r\n");
+    }
+
+    private static String csvField(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value.toString();
+        // User-supplied text starting like a formula must not be evaluated by spreadsheet apps
+        if (!text.isEmpty() && "=+-@".indexOf(text.charAt(0)) >= 0 && !(value instanceof Number)) {
+            text = "'" + text;
+        }
+        if (text.indexOf(',') >= 0 || text.indexOf('"') >= 0 || text.indexOf('\n') >= 0
+                || text.indexOf('\r') >= 0) {
+            text = "\"" + text.replace("\"", "\"\"") + "\"";
+        }
+        return text;
+    }
+}
@@ -0,0 +1,224 @@
+package com.zone01.backend.service;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
+
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Postgres LISTEN/NOTIFY shared by every node. Publishing inside a
+ * transaction delivers on commit, and not at all on rollback. Each node
+ * holds one listening connection for all channels and hands what it hears
+ * to the subscribers of that channel. Anything published while a node was
+ * not listening is lost to it, so subscribers are told when it reconnects.
+ *
+ * The listening connection sits outside the pool and is idle most of the
+ * time, so it runs with TCP keepalive and is validated on an interval; a
+ * silently dropped connection is noticed and replaced, with backoff while
+ * the database is unreachable. Listening connections are named after their
+ * node, so a node can tell whether anyone else is there to hear it.
+ */
+@Component
+public class ClusterBroadcast {
+
+    private static final Logger log = LoggerFactory.getLogger(ClusterBroadcast.class);
+    private static final char SENDER_SEPARATOR = '/';
+    private static final String LISTENER_NAME = "cluster-listener";
+    private static final long INITIAL_BACKOFF_MS = 1000;
+    private static final int VALIDATION_TIMEOUT_SECONDS = 5;
+
+    private record Subscription(String channel, boolean includeOwn, Consumer<List<String>> handler,
+            Runnable onReconnect) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String url;
+    private final Properties connectionProperties = new Properties();
+    private final long validationIntervalMs;
+    private final long maxBackoffMs;
+    // Tells this node's own messages apart from those of other nodes
+    private final String nodeId = UUID.randomUUID().toString();
+    private final List<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+    private volatile Thread listener;
+    private volatile boolean stopping;
+
+    public ClusterBroadcast(JdbcTemplate jdbcTemplate,
+            @Value("${spring.datasource.url}") String url,
+            @Value("${spring.datasource.username}") String username,
+            @Value("${spring.datasource.password}") String password,
+            @Value("${cluster.listener.validation-interval-ms:30000}") long validationIntervalMs,
+            @Value("${cluster.listener.max-backoff-ms:60000}") long maxBackoffMs) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.url = url;
+        connectionProperties.setProperty("user", username);
+        connectionProperties.setProperty("password", password);
+        connectionProperties.setProperty("tcpKeepAlive", "true");
+        // Bounds a validation query on a connection whose peer is gone
+        connectionProperties.setProperty("socketTimeout", String.valueOf(VALIDATION_TIMEOUT_SECONDS * 2));
+        connectionProperties.setProperty("ApplicationName", LISTENER_NAME + SENDER_SEPARATOR + nodeId);
+        this.validationIntervalMs = validationIntervalMs;
+        this.maxBackoffMs = maxBackoffMs;
+    }
+
+    /**
+     * Registers a handler for the payloads published on a channel, in
+     * batches as they arrive. Subscribe before the application is ready;
+     * channels are listened to from then on.
+     *
+     * @param includeOwn  whether payloads this node published are delivered too
+     * @param onReconnect called after a lost connection is restored
+     */
+    public void subscribe(String channel, boolean includeOwn, Consumer<List<String>> handler,
+            Runnable onReconnect) {
+        subscriptions.add(new Subscription(channel, includeOwn, handler, onReconnect));
+    }
+
+    public void publish(String channel, String payload) {
+        publish(channel, List.of(payload));
+    }
+
+    public void publish(String channel, Collection<String> payloads) {
+        if (payloads.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.query("SELECT pg_notify(?, ? || payload) FROM unnest(CAST(? AS text[])) payload",
+                rs -> {
+                }, channel, nodeId + SENDER_SEPARATOR, payloads.toArray(String[]::new));
+    }
+
+    /**
+     * Publishes only when another node is listening, checked in the same
+     * statement, so a node running alone sends nothing. Outside a
+     * transaction the payloads go out at once.
+     */
+    public void publishToPeers(String channel, Collection<String> payloads) {
+        if (payloads.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.query("SELECT pg_notify(?, ? || payload) FROM unnest(CAST(? AS text[])) payload "
+                + "WHERE EXISTS (SELECT 1 FROM pg_stat_activity WHERE datname = current_database() "
+                + "AND application_name LIKE ? AND application_name <> ?)",
+                rs -> {
+                }, channel, nodeId + SENDER_SEPARATOR, payloads.toArray(String[]::new),
+                LISTENER_NAME + SENDER_SEPARATOR + "%", LISTENER_NAME + SENDER_SEPARATOR + nodeId);
+    }
+
+    public boolean isListening() {
+        Thread thread = listener;
+        return thread != null && thread.isAlive();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void startListening() {
+        Thread thread = new Thread(this::listen, LISTENER_NAME);
+        thread.setDaemon(true);
+        listener = thread;
+        thread.start();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        stopping = true;
+        Thread thread = listener;
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+
+    private void listen() {
+        boolean resumed = false;
+        long backoffMs = INITIAL_BACKOFF_MS;
+        while (!stopping) {
+            try (Connection connection = DriverManager.getConnection(url, connectionProperties)) {
+                try (Statement statement = connection.createStatement()) {
+                    for (String channel : subscriptions.stream().map(Subscription::channel).distinct().toList()) {
+                        statement.execute("LISTEN " + channel);
+                    }
+                }
+                backoffMs = INITIAL_BACKOFF_MS;
+                if (resumed) {
+                    subscriptions.forEach(subscription -> run(subscription, subscription.onReconnect()));
+                }
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                long validatedAt = System.currentTimeMillis();
+                while (!stopping) {
+                    PGNotification[] received = pgConnection.getNotifications(1000);
+                    if (received != null && received.length > 0) {
+                        deliver(received);
+                    } else if (System.currentTimeMillis() - validatedAt >= validationIntervalMs) {
+                        // Waiting for notifications sends nothing, so a dead peer only shows on a round trip
+                        if (!connection.isValid(VALIDATION_TIMEOUT_SECONDS)) {
+                            throw new SQLException("Listener connection failed validation");
+                        }
+                        validatedAt = System.currentTimeMillis();
+                    }
+                }
+            } catch (SQLException | RuntimeException ex) {
+                if (stopping) {
+                    return;
+                }
+                // Jittered, so nodes that lost the database together do not reconnect in lockstep
+                long delayMs = ThreadLocalRandom.current().nextLong(backoffMs / 2, backoffMs + 1);
+                log.warn("Cluster listener lost its connection, reconnecting in {} ms: {}", delayMs, ex.getMessage());
+                resumed = true;
+                backoffMs = Math.min(backoffMs * 2, maxBackoffMs);
+                try {
+                    Thread.sleep(delayMs);
+                } catch (InterruptedException interrupted) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private void deliver(PGNotification[] received) {
+        Map<String, List<String>> remote = new LinkedHashMap<>();
+        Map<String, List<String>> all = new LinkedHashMap<>();
+        for (PGNotification notification : received) {
+            String message = notification.getParameter();
+            int separator = message.indexOf(SENDER_SEPARATOR);
+            String payload = message.substring(separator + 1);
+            all.computeIfAbsent(notification.getName(), channel -> new ArrayList<>()).add(payload);
+            if (!message.substring(0, Math.max(separator, 0)).equals(nodeId)) {
+                remote.computeIfAbsent(notification.getName(), channel -> new ArrayList<>()).add(payload);
+            }
+        }
+        for (Subscription subscription : subscriptions) {
+            List<String> payloads = (subscription.includeOwn() ? all : remote).get(subscription.channel());
+            if (payloads != null) {
+                run(subscription, () -> subscription.handler().accept(payloads));
+            }
+        }
+    }
+
+    // One failing subscriber must not cost the others their messages or the connection
+    private void run(Subscription subscription, Runnable action) {
+        try {
+            action.run();
+        } catch (RuntimeException ex) {
+            log.warn("Subscriber of {} failed", subscription.channel(), ex);
+        }
+    }
+}
@@ -2,13 +2,17 @@ package com.zone01.backend.service;
 
 import java.util.List;
 
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import com.zone01.backend.dto.CommentDTO;
 import com.zone01.backend.entity.Comment;
+import com.zone01.backend.entity.OutboxEventType;
 import com.zone01.backend.entity.Post;
 import com.zone01.backend.entity.User;
+import com.zone01.backend.event.PostEngagementEvent;
 import com.zone01.backend.repository.CommentRepository;
+import com.zone01.backend.util.ResourceVersion;
 
 import com.zone01.backend.exception.CommentNotFoundException;
 import com.zone01.backend.exception.UnauthorizedActionException;
@@ -18,13 +22,15 @@ import jakarta.transaction.Transactional;
 public class CommentService {
     private final CommentRepository commentRepository;
     private final PostService postService;
-    private final NotificationService notificationService;
+    private final OutboxService outboxService;
+    private final ApplicationEventPublisher eventPublisher;
 
     public CommentService(CommentRepository commentRepository, PostService postService,
-            NotificationService notificationService) {
+            OutboxService outboxService, ApplicationEventPublisher eventPublisher) {
         this.commentRepository = commentRepository;
         this.postService = postService;
-        this.notificationService = notificationService;
+        this.outboxService = outboxService;
+        this.eventPublisher = eventPublisher;
     }
 
     @Transactional
@@ -45,12 +51,22 @@ public class CommentService {
         comment.setCreatedAt(java.time.LocalDateTime.now());
         comment.setUpdatedAt(java.time.LocalDateTime.now());
         Comment savedComment = commentRepository.save(comment);
-        notificationService.createCommentNotification(user, post);
+        postService.adjustCommentCount(post.getId(), 1);
+        eventPublisher.publishEvent(new PostEngagementEvent(post.getId(), PostEngagementEvent.Kind.COMMENT, 1,
+                savedComment.getCreatedAt()));
+        outboxService.record(OutboxEventType.POST_COMMENTED, user.getId(), post.getId());
         return savedComment;
     }
 
-    public List<Comment> getCommentsByPost(Long postId) {
-        return commentRepository.findByPostIdOrderByCreatedAtAsc(postId);
+    public List<CommentDTO> getCommentsByPostDTO(Long postId) {
+        return commentRepository.findDtosByPostId(postId);
+    }
+
+    public ResourceVersion getCommentsVersion(Long postId) {
+        CommentRepository.CommentsVersion version = commentRepository.findVersionByPostId(postId);
+        // Deletes move no timestamp, so the listing only has an ETag
+        return ResourceVersion.of(null, postId, version.getCount(), version.getIdSum(),
+                version.getLastUpdatedAt(), version.getLastAuthorUpdatedAt());
     }
 
     public Comment getCommentById(Long id) {
@@ -77,6 +93,9 @@ public class CommentService {
             throw new UnauthorizedActionException("You cannot delete this comment");
         }
         commentRepository.delete(comment);
+        postService.adjustCommentCount(comment.getPost().getId(), -1);
+        eventPublisher.publishEvent(new PostEngagementEvent(comment.getPost().getId(),
+                PostEngagementEvent.Kind.COMMENT, -1, comment.getCreatedAt()));
     }
 
     public List<Comment> getCommentsByAuthor(User author) {
@@ -0,0 +1,84 @@
+package com.zone01.backend.service;
+
+import java.util.List;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.zone01.backend.repository.PostRepository;
+import com.zone01.backend.repository.PostRepository.LikeCountDrift;
+import com.zone01.backend.repository.UserRepository;
+
+/**
+ * Repairs drift in the denormalized posts.like_count, posts.comment_count
+ * and users.unread_notifications columns, e.g. after cascading user deletes
+ * or a crash between the child row write and the counter update. Also fills
+ * the columns on first start.
+ *
+ * Like counts trail their rows by whatever the {@link LikeCounterBuffer} of
+ * each node has not flushed yet, and other nodes' buffers cannot be seen
+ * from here. A like count is therefore only repaired once the same
+ * discrepancy has held for a full settle period, which is longer than any
+ * flush interval, with neither the counter nor the like rows moving.
+ */
+@Service
+public class CounterReconciliationService {
+
+    private static final Logger log = LoggerFactory.getLogger(CounterReconciliationService.class);
+
+    private final PostRepository postRepository;
+    private final UserRepository userRepository;
+    private final LikeCounterBuffer likeCounterBuffer;
+    private final long intervalMs;
+    private List<LikeCountDrift> observedLikeDrift = List.of();
+    private long lastRunMs = Long.MIN_VALUE;
+
+    public CounterReconciliationService(PostRepository postRepository, UserRepository userRepository,
+            LikeCounterBuffer likeCounterBuffer,
+            @Value("${counters.reconcile-interval-ms:3600000}") long intervalMs) {
+        this.postRepository = postRepository;
+        this.userRepository = userRepository;
+        this.likeCounterBuffer = likeCounterBuffer;
+        this.intervalMs = intervalMs;
+    }
+
+    // Runs every settle period: repairs the like drift observed on the
+    // previous run, and starts a full pass once the interval has passed
+    @Scheduled(initialDelayString = "${counters.reconcile-initial-delay-ms:0}",
+            fixedDelayString = "${counters.reconcile-settle-ms:30000}")
+    public void reconcile() {
+        int likes = repairLikeCounts(observedLikeDrift);
+        observedLikeDrift = List.of();
+        int comments = 0;
+        int unread = 0;
+        long now = System.currentTimeMillis();
+        if (lastRunMs == Long.MIN_VALUE || now - lastRunMs >= intervalMs) {
+            lastRunMs = now;
+            likeCounterBuffer.flush();
+            Set<Long> busy = likeCounterBuffer.bufferedPostIds();
+            observedLikeDrift = postRepository.findLikeCountDrift().stream()
+                    .filter(drift -> !busy.contains(drift.getId()))
+                    .toList();
+            comments = postRepository.reconcileCommentCounts();
+            unread = userRepository.reconcileUnreadNotificationCounts();
+        }
+        if (likes > 0 || comments > 0 || unread > 0) {
+            log.info("Reconciled counters: {} like counts, {} comment counts, {} unread notification counts",
+                    likes, comments, unread);
+        }
+    }
+
+    private int repairLikeCounts(List<LikeCountDrift> drift) {
+        if (drift.isEmpty()) {
+            return 0;
+        }
+        return postRepository.repairLikeCounts(
+                drift.stream().map(LikeCountDrift::getId).toArray(Long[]::new),
+                drift.stream().map(LikeCountDrift::getRecorded).toArray(Long[]::new),
+                drift.stream().map(LikeCountDrift::getActual).toArray(Long[]::new));
+    }
+}
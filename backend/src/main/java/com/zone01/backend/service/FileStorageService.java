@@ -2,19 +2,29 @@ package com.zone01.backend.service;
 
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
+
+import com.zone01.backend.job.JobQueue;
+import com.zone01.backend.job.MediaCleanupJob;
+
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
+import java.util.Collection;
+import java.util.List;
 import java.util.UUID;
 
 @Service
 public class FileStorageService {
 
+    private static final String UPLOADS_PATH = "/uploads/";
+
     private final Path fileStorageLocation;
+    private final JobQueue jobQueue;
 
-    public FileStorageService() {
+    public FileStorageService(JobQueue jobQueue) {
+        this.jobQueue = jobQueue;
         this.fileStorageLocation = Paths.get("uploads").toAbsolutePath().normalize();
         try {
             Files.createDirectories(this.fileStorageLocation);
@@ -40,6 +50,33 @@ public class FileStorageService {
         }
     }
 
+    /**
+     * Queues deletion of files that are no longer attached. Runs after the
+     * caller commits, and keeps any file that is still referenced by then.
+     */
+    public void discard(Collection<String> mediaUrls) {
+        List<String> uploads = mediaUrls.stream()
+                .filter(url -> url != null && url.contains(UPLOADS_PATH))
+                .distinct()
+                .toList();
+        if (!uploads.isEmpty()) {
+            jobQueue.enqueue(MediaCleanupJob.TYPE, new MediaCleanupJob.Payload(uploads), MediaCleanupJob.PRIORITY);
+        }
+    }
+
+    public boolean delete(String mediaUrl) {
+        String fileName = mediaUrl.substring(mediaUrl.lastIndexOf(UPLOADS_PATH) + UPLOADS_PATH.length());
+        Path target = this.fileStorageLocation.resolve(fileName).normalize();
+        if (!this.fileStorageLocation.equals(target.getParent())) {
+            return false;
+        }
+        try {
+            return Files.deleteIfExists(target);
+        } catch (IOException ex) {
+            throw new RuntimeException("Could not delete file " + fileName, ex);
+        }
+    }
+
     public boolean isValidMediaType(MultipartFile file, String... allowedPrefixes) {
         String contentType = file.getContentType();
         if (contentType == null)
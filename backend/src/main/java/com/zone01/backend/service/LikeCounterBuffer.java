@@ -0,0 +1,146 @@
+package com.zone01.backend.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Write-behind buffer for posts.like_count. Likes on a hot post only touch a
+ * striped in-memory adder; a timer folds the accumulated deltas into the
+ * posts table in one batch, so the post row is locked once per flush instead
+ * of once per like.
+ */
+@Component
+public class LikeCounterBuffer {
+
+    private static final Logger log = LoggerFactory.getLogger(LikeCounterBuffer.class);
+
+    private static final String FLUSH_SQL = "UPDATE posts SET like_count = like_count + ? WHERE id = ?";
+
+    private static final class Counter {
+        private final LongAdder recorded = new LongAdder();
+        private final AtomicLong flushed = new AtomicLong();
+
+        long pending() {
+            return recorded.sum() - flushed.get();
+        }
+    }
+
+    private final ConcurrentHashMap<Long, Counter> counters = new ConcurrentHashMap<>();
+    // Counters removed from the map get one more flush to pick up racing adds
+    private final Map<Long, Counter> retired = new ConcurrentHashMap<>();
+    // Transactions that recorded a delta and have not reached afterCommit yet
+    private final ConcurrentHashMap<Long, Integer> inFlight = new ConcurrentHashMap<>();
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    public LikeCounterBuffer(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Records a like delta. Inside a transaction the delta is only buffered
+     * after commit, so rolled back likes never reach the counter.
+     */
+    public void record(Long postId, long delta) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            inFlight.merge(postId, 1, Integer::sum);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    add(postId, delta);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    inFlight.computeIfPresent(postId, (id, count) -> count == 1 ? null : count - 1);
+                }
+            });
+        } else {
+            add(postId, delta);
+        }
+    }
+
+    public long pending(Long postId) {
+        Counter counter = counters.get(postId);
+        Counter old = retired.get(postId);
+        return (counter == null ? 0 : counter.pending()) + (old == null ? 0 : old.pending());
+    }
+
+    /**
+     * Posts whose like_count may still lag their like rows on this node:
+     * deltas not flushed yet, including retired counters, and likes in
+     * transactions that have not handed their delta over yet.
+     */
+    public Set<Long> bufferedPostIds() {
+        Set<Long> ids = new HashSet<>(counters.keySet());
+        ids.addAll(retired.keySet());
+        ids.addAll(inFlight.keySet());
+        return ids;
+    }
+
+    @Scheduled(fixedDelayString = "${likes.flush-interval-ms:1000}")
+    public synchronized void flush() {
+        List<Map.Entry<Long, Counter>> batch = new ArrayList<>(counters.entrySet());
+        batch.addAll(retired.entrySet());
+        // Stable id order keeps concurrent flushers from deadlocking on row locks
+        batch.sort(Map.Entry.comparingByKey(Comparator.naturalOrder()));
+
+        List<Object[]> updates = new ArrayList<>();
+        List<Counter> applied = new ArrayList<>();
+        List<Long> snapshots = new ArrayList<>();
+        for (Map.Entry<Long, Counter> entry : batch) {
+            Counter counter = entry.getValue();
+            long total = counter.recorded.sum();
+            long delta = total - counter.flushed.get();
+            if (delta != 0) {
+                updates.add(new Object[] { delta, entry.getKey() });
+                applied.add(counter);
+                snapshots.add(total);
+            } else if (!retired.remove(entry.getKey(), counter) && counters.remove(entry.getKey(), counter)) {
+                retired.putIfAbsent(entry.getKey(), counter);
+            }
+        }
+
+        if (updates.isEmpty()) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(FLUSH_SQL, updates));
+        } catch (RuntimeException ex) {
+            log.warn("Like counter flush failed, {} posts will be retried", updates.size(), ex);
+            return;
+        }
+        for (int i = 0; i < applied.size(); i++) {
+            applied.get(i).flushed.set(snapshots.get(i));
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    private void add(Long postId, long delta) {
+        counters.computeIfAbsent(postId, id -> new Counter()).recorded.add(delta);
+    }
+}
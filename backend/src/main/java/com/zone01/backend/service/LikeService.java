@@ -1,11 +1,19 @@
 package com.zone01.backend.service;
 
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import com.zone01.backend.entity.Like;
+import com.zone01.backend.entity.OutboxEventType;
 import com.zone01.backend.entity.Post;
 import com.zone01.backend.entity.User;
+import com.zone01.backend.event.PostEngagementEvent;
+import com.zone01.backend.exception.PostNotFoundException;
 import com.zone01.backend.repository.LikeRepository;
+import com.zone01.backend.repository.PostRepository;
 
 import jakarta.transaction.Transactional;
 
@@ -13,42 +21,65 @@ import jakarta.transaction.Transactional;
 public class LikeService {
 
     private final LikeRepository likeRepository;
+    private final PostRepository postRepository;
     private final PostService postService;
-    private final NotificationService notificationService;
+    private final OutboxService outboxService;
+    private final LikeCounterBuffer likeCounterBuffer;
+    private final LikedPostsCache likedPostsCache;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public LikeService(LikeRepository likeRepository, PostService postService,
-            NotificationService notificationService) {
+    public LikeService(LikeRepository likeRepository, PostRepository postRepository, PostService postService,
+            OutboxService outboxService, LikeCounterBuffer likeCounterBuffer,
+            LikedPostsCache likedPostsCache, ApplicationEventPublisher eventPublisher) {
         this.likeRepository = likeRepository;
+        this.postRepository = postRepository;
         this.postService = postService;
-        this.notificationService = notificationService;
+        this.outboxService = outboxService;
+        this.likeCounterBuffer = likeCounterBuffer;
+        this.likedPostsCache = likedPostsCache;
+        this.eventPublisher = eventPublisher;
     }
 
     @Transactional
     public Like likePost(Long postId, User user) {
-        Post post = postService.getPostById(postId);
-
-        if (post.isHidden()) {
-            throw new IllegalArgumentException("Cannot like a hidden post");
+        LocalDateTime now = LocalDateTime.now();
+        Optional<Long> insertedId = likeRepository.insertIfAbsent(user.getId(), postId, now);
+        if (insertedId.isEmpty()) {
+            // Nothing inserted: an existing like, or a missing or hidden post
+            LikeRepository.LikeState state = likeRepository.findLikeState(user.getId(), postId)
+                    .orElseThrow(() -> new PostNotFoundException(postId));
+            if (state.getHidden()) {
+                throw new IllegalArgumentException("Cannot like a hidden post");
+            }
+            // No like row means a concurrent unlike removed it after the insert missed; that unlike ordered
+            // after this like, so the request is answered as it stands rather than inserting again
+            LocalDateTime likedAt = state.getLikeId() != null ? state.getLikedAt() : now;
+            return new Like(state.getLikeId(), user, postRepository.getReferenceById(postId), likedAt);
         }
 
-        return likeRepository.findByUserAndPost(user, post)
-                .orElseGet(() -> {
-                    Like like = new Like(user, post);
-                    Like savedLike = likeRepository.save(like);
-                    notificationService.createLikeNotification(user, post);
-                    return savedLike;
-                });
+        // The insert already checked the post exists and is visible, so no SELECT is needed
+        Post post = postRepository.getReferenceById(postId);
+        likeCounterBuffer.record(postId, 1);
+        likedPostsCache.recordLike(user.getId(), postId);
+        eventPublisher.publishEvent(new PostEngagementEvent(postId, PostEngagementEvent.Kind.LIKE, 1, now));
+        outboxService.record(OutboxEventType.POST_LIKED, user.getId(), postId);
+        return new Like(insertedId.get(), user, post, now);
     }
 
     @Transactional
     public void unlikePost(Long postId, User user) {
-        Post post = postService.getPostById(postId);
+        Optional<LocalDateTime> likedAt = likeRepository.deleteVisible(user.getId(), postId);
+        if (likedAt.isPresent()) {
+            likeCounterBuffer.record(postId, -1);
+            likedPostsCache.recordUnlike(user.getId(), postId);
+            eventPublisher.publishEvent(
+                    new PostEngagementEvent(postId, PostEngagementEvent.Kind.LIKE, -1, likedAt.get()));
+            return;
+        }
 
+        Post post = postService.getPostById(postId);
         if (post.isHidden()) {
             throw new IllegalArgumentException("Cannot unlike a hidden post");
         }
-
-        likeRepository.findByUserAndPost(user, post)
-                .ifPresent(likeRepository::delete);
     }
 }
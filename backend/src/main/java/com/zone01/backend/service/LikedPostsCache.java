@@ -0,0 +1,237 @@
+package com.zone01.backend.service;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.zone01.backend.repository.LikeRepository;
+import com.zone01.backend.util.LongHashSet;
+
+/**
+ * In-process cache of each active viewer's liked post ids, held as primitive
+ * long sets in a byte-bounded LRU. Like writes are applied after commit; a
+ * viewer's first lookup loads the full set once and later pages are answered
+ * from memory. Users whose likes changed are collected as their writes
+ * commit and published to other nodes through {@link ClusterBroadcast} in
+ * batches on a timer, so the like transaction itself sends nothing; other
+ * nodes drop those users' sets, to be loaded again on next use, and may
+ * answer from the old set until the next flush reaches them.
+ */
+@Component
+public class LikedPostsCache {
+
+    private static final Logger log = LoggerFactory.getLogger(LikedPostsCache.class);
+    private static final String CHANNEL = "liked_posts_changes";
+    private static final int STRIPES = 64;
+    // Rough per-entry cost of the LRU node and boxed key on top of the set itself
+    private static final long ENTRY_OVERHEAD_BYTES = 64L;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final LikeRepository likeRepository;
+    private final ClusterBroadcast clusterBroadcast;
+    private final long maxBytes;
+
+    // Serializes loads and writes for the same user, so a write that commits
+    // while the user's set is loading is applied on top of the loaded set
+    private final Object[] stripes = new Object[STRIPES];
+    private final LinkedHashMap<Long, LongHashSet> entries = new LinkedHashMap<>(256, 0.75f, true);
+    private final Map<Long, Long> entryBytes = new HashMap<>();
+    private long totalBytes;
+    // Users whose likes changed on this node since the last publish to other nodes
+    private final Set<Long> changedUsers = ConcurrentHashMap.newKeySet();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public LikedPostsCache(JdbcTemplate jdbcTemplate, LikeRepository likeRepository,
+            ClusterBroadcast clusterBroadcast, @Value("${likes.cache.max-bytes:67108864}") long maxBytes) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.likeRepository = likeRepository;
+        this.clusterBroadcast = clusterBroadcast;
+        this.maxBytes = maxBytes;
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Object();
+        }
+        // Writes missed while not listening could be anyone's, so every set goes
+        clusterBroadcast.subscribe(CHANNEL, false, this::evict, this::evictAll);
+    }
+
+    public Set<Long> likedAmong(Long userId, Collection<Long> postIds) {
+        if (maxBytes <= 0) {
+            return likeRepository.findLikedPostIdsAmong(userId, postIds);
+        }
+        Set<Long> liked = new HashSet<>();
+        synchronized (stripe(userId)) {
+            LongHashSet set = lookup(userId);
+            for (Long postId : postIds) {
+                if (set.contains(postId)) {
+                    liked.add(postId);
+                }
+            }
+        }
+        return liked;
+    }
+
+    public void recordLike(Long userId, Long postId) {
+        afterCommit(() -> apply(userId, postId, true));
+    }
+
+    public void recordUnlike(Long userId, Long postId) {
+        afterCommit(() -> apply(userId, postId, false));
+    }
+
+    @Scheduled(fixedDelayString = "${likes.cache.invalidation-flush-ms:200}")
+    public void publishInvalidations() {
+        if (changedUsers.isEmpty()) {
+            return;
+        }
+        List<Long> batch = List.copyOf(changedUsers);
+        changedUsers.removeAll(batch);
+        try {
+            clusterBroadcast.publishToPeers(CHANNEL, batch.stream().map(String::valueOf).toList());
+        } catch (RuntimeException ex) {
+            changedUsers.addAll(batch);
+            log.warn("Could not publish liked set invalidations, will retry: {}", ex.getMessage());
+        }
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new HashMap<>();
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        synchronized (entries) {
+            stats.put("entries", entries.size());
+            stats.put("bytes", totalBytes);
+        }
+        stats.put("maxBytes", maxBytes);
+        stats.put("hits", hitCount);
+        stats.put("misses", missCount);
+        stats.put("hitRatio", hitCount + missCount == 0 ? 0.0 : (double) hitCount / (hitCount + missCount));
+        stats.put("evictions", evictions.sum());
+        return stats;
+    }
+
+    private LongHashSet lookup(Long userId) {
+        LongHashSet set;
+        synchronized (entries) {
+            set = entries.get(userId);
+        }
+        if (set != null) {
+            hits.increment();
+            return set;
+        }
+        misses.increment();
+        LongHashSet loaded = new LongHashSet();
+        jdbcTemplate.query("SELECT post_id FROM likes WHERE user_id = ?",
+                rs -> {
+                    loaded.add(rs.getLong(1));
+                }, userId);
+        store(userId, loaded);
+        return loaded;
+    }
+
+    private void apply(Long userId, Long postId, boolean liked) {
+        if (maxBytes <= 0) {
+            return;
+        }
+        changedUsers.add(userId);
+        synchronized (stripe(userId)) {
+            LongHashSet set;
+            synchronized (entries) {
+                set = entries.get(userId);
+            }
+            // Users who are not cached pick the change up on their next load
+            if (set == null) {
+                return;
+            }
+            if (liked) {
+                set.add(postId);
+            } else {
+                set.remove(postId);
+            }
+            store(userId, set);
+        }
+    }
+
+    private void evict(List<String> payloads) {
+        for (String payload : new HashSet<>(payloads)) {
+            Long userId = Long.valueOf(payload);
+            // Under the stripe, so a load already under way is dropped rather than stored after this
+            synchronized (stripe(userId)) {
+                synchronized (entries) {
+                    remove(userId);
+                }
+            }
+        }
+    }
+
+    private void evictAll() {
+        for (Object stripe : stripes) {
+            synchronized (stripe) {
+                synchronized (entries) {
+                    for (Long userId : List.copyOf(entries.keySet())) {
+                        if (stripe(userId) == stripe) {
+                            remove(userId);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    private void remove(Long userId) {
+        if (entries.remove(userId) != null) {
+            totalBytes -= entryBytes.remove(userId);
+        }
+    }
+
+    private void store(Long userId, LongHashSet set) {
+        long bytes = set.memoryBytes() + ENTRY_OVERHEAD_BYTES;
+        synchronized (entries) {
+            Long previous = entryBytes.put(userId, bytes);
+            totalBytes += bytes - (previous == null ? 0 : previous);
+            entries.put(userId, set);
+            Iterator<Map.Entry<Long, LongHashSet>> eldest = entries.entrySet().iterator();
+            while (totalBytes > maxBytes && eldest.hasNext()) {
+                Long evicted = eldest.next().getKey();
+                eldest.remove();
+                totalBytes -= entryBytes.remove(evicted);
+                evictions.increment();
+            }
+        }
+    }
+
+    private Object stripe(Long userId) {
+        return stripes[Long.hashCode(userId) & (STRIPES - 1)];
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package com.zone01.backend.service;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Keeps the notifications table in monthly range partitions on created_at.
+ * Partitions are created a few months ahead, and months that fall out of the
+ * retention window are dropped whole, which takes the same time however many
+ * rows they hold and leaves no dead tuples for vacuum. The plain table
+ * Hibernate creates is converted on first start.
+ */
+@Service
+public class NotificationPartitionService {
+
+    private static final Logger log = LoggerFactory.getLogger(NotificationPartitionService.class);
+
+    // Serializes conversion and maintenance across nodes
+    private static final long LOCK_KEY = 0x6e6f746966706172L;
+    private static final String PARTITION_PREFIX = "notifications_p";
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+    // Not declared on the entity, see Notification
+    private static final Map<String, String> FOREIGN_KEYS = Map.of(
+            "recipient_id", "users",
+            "actor_id", "users",
+            "post_id", "posts");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int monthsAhead;
+    private final int retentionMonths;
+    private final long lockTimeoutMs;
+
+    public NotificationPartitionService(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+            @Value("${notifications.partitions-ahead:3}") int monthsAhead,
+            @Value("${notifications.retention-months:12}") int retentionMonths,
+            @Value("${notifications.partition-lock-timeout-ms:5000}") long lockTimeoutMs) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.monthsAhead = monthsAhead;
+        this.retentionMonths = retentionMonths;
+        this.lockTimeoutMs = lockTimeoutMs;
+    }
+
+    /**
+     * Moves an unpartitioned notifications table into monthly partitions and
+     * adds any missing foreign keys. Secondary indexes are left to the
+     * runners that create them, which run afterwards.
+     */
+    public void partitionTable() {
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.queryForList("SELECT pg_advisory_xact_lock(?)", LOCK_KEY);
+            if ("r".equals(tableKind())) {
+                moveIntoPartitions();
+            }
+            FOREIGN_KEYS.forEach(this::addForeignKey);
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${notifications.partition-maintenance-interval-ms:86400000}")
+    public void maintain() {
+        List<String> expired = transactionTemplate.execute(status -> {
+            if (!lock() || !"p".equals(tableKind())) {
+                return List.of();
+            }
+            createPartitions(YearMonth.now());
+            YearMonth oldestKept = YearMonth.now().minusMonths(retentionMonths);
+            return partitions().stream()
+                    .filter(partition -> partitionMonth(partition).isBefore(oldestKept))
+                    .toList();
+        });
+        for (String partition : expired) {
+            try {
+                dropPartition(partition);
+            } catch (DataAccessException ex) {
+                // Most likely the lock timeout behind a long query; the next run tries again
+                log.warn("Could not drop notification partition {}: {}", partition, ex.getMessage());
+            }
+        }
+    }
+
+    private void dropPartition(String partition) {
+        Integer released = transactionTemplate.execute(status -> {
+            if (!lock() || jdbcTemplate.queryForObject("SELECT to_regclass(?) IS NULL", Boolean.class, partition)) {
+                return null;
+            }
+            // Bounds how long the exclusive lock on notifications can hold up requests
+            jdbcTemplate.execute("SET LOCAL lock_timeout = " + lockTimeoutMs);
+            jdbcTemplate.execute("ALTER TABLE notifications DETACH PARTITION " + partition);
+            // Detached rows can no longer be marked read, so their unread counts can be given back exactly
+            int users = jdbcTemplate.update("UPDATE users u SET unread_notifications = u.unread_notifications - c.total "
+                    + "FROM (SELECT recipient_id, COUNT(*) AS total FROM " + partition
+                    + " WHERE is_read = false GROUP BY recipient_id) c WHERE u.id = c.recipient_id");
+            jdbcTemplate.execute("DROP TABLE " + partition);
+            return users;
+        });
+        if (released != null) {
+            log.info("Dropped notification partition {}, released unread counts of {} users", partition, released);
+        }
+    }
+
+    private void moveIntoPartitions() {
+        jdbcTemplate.execute("ALTER TABLE notifications RENAME TO notifications_unpartitioned");
+        jdbcTemplate.execute("ALTER TABLE notifications_unpartitioned "
+                + "RENAME CONSTRAINT notifications_pkey TO notifications_unpartitioned_pkey");
+        for (String index : jdbcTemplate.queryForList("SELECT indexname FROM pg_indexes "
+                + "WHERE tablename = 'notifications_unpartitioned' AND indexname <> 'notifications_unpartitioned_pkey'",
+                String.class)) {
+            jdbcTemplate.execute("DROP INDEX " + index);
+        }
+        // The partition key has to be part of the primary key
+        jdbcTemplate.execute("CREATE TABLE notifications (LIKE notifications_unpartitioned INCLUDING DEFAULTS, "
+                + "PRIMARY KEY (id, created_at)) PARTITION BY RANGE (created_at)");
+        LocalDate oldest = jdbcTemplate.queryForObject(
+                "SELECT min(created_at)::date FROM notifications_unpartitioned", LocalDate.class);
+        createPartitions(oldest == null ? YearMonth.now() : YearMonth.from(oldest));
+        int moved = jdbcTemplate.update("INSERT INTO notifications SELECT * FROM notifications_unpartitioned");
+        jdbcTemplate.execute("DROP TABLE notifications_unpartitioned");
+        log.info("Moved {} notifications into monthly partitions", moved);
+    }
+
+    private void addForeignKey(String column, String referenced) {
+        boolean exists = jdbcTemplate.queryForObject("SELECT EXISTS (SELECT 1 FROM pg_constraint c "
+                + "JOIN pg_attribute a ON a.attrelid = c.conrelid AND a.attnum = c.conkey[1] "
+                + "WHERE c.conrelid = 'notifications'::regclass AND c.contype = 'f' AND a.attname = ?)",
+                Boolean.class, column);
+        if (!exists) {
+            jdbcTemplate.execute("ALTER TABLE notifications ADD CONSTRAINT fk_notifications_" + column
+                    + " FOREIGN KEY (" + column + ") REFERENCES " + referenced + " (id)");
+        }
+    }
+
+    private void createPartitions(YearMonth from) {
+        YearMonth last = YearMonth.now().plusMonths(monthsAhead);
+        for (YearMonth month = from; !month.isAfter(last); month = month.plusMonths(1)) {
+            jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + PARTITION_PREFIX + month.format(PARTITION_SUFFIX)
+                    + " PARTITION OF notifications FOR VALUES FROM ('" + month.atDay(1) + "') TO ('"
+                    + month.plusMonths(1).atDay(1) + "')");
+        }
+    }
+
+    // Only partitions named by this service are considered for retention
+    private List<String> partitions() {
+        return jdbcTemplate.queryForList("SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid "
+                + "WHERE i.inhparent = 'notifications'::regclass AND c.relname ~ ?", String.class,
+                "^" + PARTITION_PREFIX + "[0-9]{6}$");
+    }
+
+    private static YearMonth partitionMonth(String partition) {
+        return YearMonth.parse(partition.substring(PARTITION_PREFIX.length()), PARTITION_SUFFIX);
+    }
+
+    private boolean lock() {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject("SELECT pg_try_advisory_xact_lock(?)", Boolean.class,
+                LOCK_KEY));
+    }
+
+    private String tableKind() {
+        return jdbcTemplate.queryForObject(
+                "SELECT (SELECT relkind::text FROM pg_class WHERE oid = to_regclass('notifications'))", String.class);
+    }
+}
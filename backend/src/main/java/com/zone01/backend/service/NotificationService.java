@@ -1,43 +1,83 @@
 package com.zone01.backend.service;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+import com.zone01.backend.dto.CursorPageDTO;
+import com.zone01.backend.dto.NotificationDTO;
 import com.zone01.backend.entity.Notification;
 import com.zone01.backend.entity.NotificationType;
 import com.zone01.backend.entity.Post;
 import com.zone01.backend.entity.User;
+import com.zone01.backend.job.JobQueue;
+import com.zone01.backend.job.NotificationFanOutJob;
 import com.zone01.backend.repository.NotificationRepository;
+import com.zone01.backend.repository.UserRepository;
+import com.zone01.backend.util.CursorUtil;
 
 import jakarta.transaction.Transactional;
 
 @Service
 public class NotificationService {
 
+    // Bounds the IN list of a bulk mark-read
+    public static final int MAX_BULK_IDS = 500;
+
+    public static final int DEFAULT_PAGE_SIZE = 20;
+    public static final int MAX_PAGE_SIZE = 50;
+
     private final NotificationRepository notificationRepository;
+    private final UserRepository userRepository;
+    private final JobQueue jobQueue;
+    private final NotificationStream notificationStream;
+    private final int fanOutChunkSize;
+    private final Duration aggregationWindow;
+    private final int recentActorsLimit;
 
-    public NotificationService(NotificationRepository notificationRepository) {
+    public NotificationService(NotificationRepository notificationRepository, UserRepository userRepository,
+            JobQueue jobQueue,
+            NotificationStream notificationStream,
+            @Value("${notifications.fan-out-chunk-size:1000}") int fanOutChunkSize,
+            @Value("${notifications.aggregation-window-minutes:60}") long aggregationWindowMinutes,
+            @Value("${notifications.aggregation-recent-actors:3}") int recentActorsLimit) {
         this.notificationRepository = notificationRepository;
+        this.userRepository = userRepository;
+        this.jobQueue = jobQueue;
+        this.notificationStream = notificationStream;
+        this.fanOutChunkSize = fanOutChunkSize;
+        this.aggregationWindow = Duration.ofMinutes(aggregationWindowMinutes);
+        this.recentActorsLimit = Math.max(1, recentActorsLimit);
     }
 
     @Transactional
-    public void notifySubscribers(Post post, List<User> subscribers) {
-        if (subscribers.isEmpty()) {
-            return;
-        }
-
-        List<Notification> notifications = subscribers.stream()
-                .filter(subscriber -> !subscriber.getId().equals(post.getAuthor().getId()))
-                .map(subscriber -> new Notification(
-                        subscriber,
-                        post.getAuthor(),
-                        post,
-                        NotificationType.NEW_POST,
-                        post.getAuthor().getUsername() + " published a new post: " + post.getTitle()))
-                .toList();
+    public void notifySubscribers(Long postId) {
+        jobQueue.enqueue(NotificationFanOutJob.TYPE, new NotificationFanOutJob.Payload(postId, 0),
+                NotificationFanOutJob.PRIORITY);
+    }
 
-        notificationRepository.saveAll(notifications);
+    @Transactional
+    public void notifySubscribersAfter(Long postId, long afterSubscriberId) {
+        List<NotificationRepository.CreatedNotification> notified = notificationRepository.insertNewPostNotifications(
+                postId, afterSubscriberId, fanOutChunkSize, LocalDateTime.now());
+        Map<Long, Long> recipientIds = new HashMap<>();
+        notified.forEach(notification -> recipientIds.put(notification.getId(), notification.getRecipientId()));
+        notificationStream.announce(recipientIds);
+        if (notified.size() == fanOutChunkSize) {
+            long last = Collections.max(recipientIds.values());
+            jobQueue.enqueue(NotificationFanOutJob.TYPE, new NotificationFanOutJob.Payload(postId, last),
+                    NotificationFanOutJob.PRIORITY);
+        }
     }
 
     @Transactional
@@ -45,13 +85,7 @@ public class NotificationService {
         if (actor.getId().equals(post.getAuthor().getId())) {
             return;
         }
-        Notification notification = new Notification(
-                post.getAuthor(),
-                actor,
-                post,
-                NotificationType.LIKE,
-                actor.getUsername() + " liked your post: " + post.getTitle());
-        notificationRepository.save(notification);
+        aggregate(post.getAuthor(), actor, post, NotificationType.LIKE, "liked your post: " + post.getTitle());
     }
 
     @Transactional
@@ -65,7 +99,7 @@ public class NotificationService {
                 post,
                 NotificationType.COMMENT,
                 actor.getUsername() + " commented on your post: " + post.getTitle());
-        notificationRepository.save(notification);
+        deliver(notification);
     }
 
     @Transactional
@@ -79,18 +113,12 @@ public class NotificationService {
                 post,
                 NotificationType.SHARE,
                 actor.getUsername() + " shared your post: " + post.getTitle());
-        notificationRepository.save(notification);
+        deliver(notification);
     }
 
     @Transactional
     public void createFollowNotification(User actor, User recipient) {
-        Notification notification = new Notification(
-                recipient,
-                actor,
-                actor.getId(),
-                NotificationType.FOLLOW,
-                actor.getUsername() + " started following you");
-        notificationRepository.save(notification);
+        aggregate(recipient, actor, null, NotificationType.FOLLOW, "started following you");
     }
 
     @Transactional
@@ -103,43 +131,136 @@ public class NotificationService {
                         NotificationType.REPORT,
                         actor.getUsername() + " reported a " + type))
                 .toList();
-        notificationRepository.saveAll(notifications);
+        notificationStream.announce(notificationRepository.saveAll(notifications));
+        userRepository.incrementUnreadNotifications(admins.stream().map(User::getId).toList());
     }
 
-    public List<Notification> getNotifications(User user) {
-        return notificationRepository.findByRecipientOrderByCreatedAtDesc(user);
+    public CursorPageDTO<NotificationDTO> getNotificationsPage(User user, String cursor, int limit) {
+        int pageSize = CursorUtil.clampLimit(limit, MAX_PAGE_SIZE);
+        PageRequest window = PageRequest.ofSize(pageSize + 1);
+        List<NotificationDTO> notifications;
+        if (cursor == null || cursor.isBlank()) {
+            notifications = notificationRepository.findInboxPage(user.getId(), window);
+        } else {
+            CursorUtil.Position position = CursorUtil.decode(cursor);
+            notifications = notificationRepository.findInboxPageBefore(user.getId(), position.createdAt(),
+                    position.id(), window);
+        }
+        String nextCursor = null;
+        if (notifications.size() > pageSize) {
+            notifications = notifications.subList(0, pageSize);
+            NotificationDTO last = notifications.get(pageSize - 1);
+            nextCursor = CursorUtil.encode(last.getLastActivityAt(), last.getId());
+        }
+        return new CursorPageDTO<>(notifications, nextCursor);
     }
 
     @Transactional
     public Notification markAsRead(Long notificationId, User user) {
-        Notification notification = notificationRepository.findByIdAndRecipient(notificationId, user)
-                .orElseThrow(() -> new IllegalArgumentException("Notification not found"));
-        notification.setRead(true);
-        return notificationRepository.save(notification);
+        return setRead(notificationId, user, true);
     }
 
     @Transactional
     public Notification markAsUnread(Long notificationId, User user) {
-        Notification notification = notificationRepository.findByIdAndRecipient(notificationId, user)
-                .orElseThrow(() -> new IllegalArgumentException("Notification not found"));
-        notification.setRead(false);
-        return notificationRepository.save(notification);
+        return setRead(notificationId, user, false);
     }
 
     @Transactional
-    public void markAllAsRead(User user) {
-        List<Notification> notifications = notificationRepository.findByRecipientOrderByCreatedAtDesc(user)
-                .stream()
-                .filter(notification -> !notification.isRead())
-                .toList();
+    public long markAllAsRead(User user) {
+        return notificationRepository.markAllRead(user.getId());
+    }
 
-        if (!notifications.isEmpty()) {
-            notifications.forEach(notification -> notification.setRead(true));
-            notificationRepository.saveAll(notifications);
+    @Transactional
+    public long markAsRead(Collection<Long> notificationIds, User user) {
+        if (notificationIds.size() > MAX_BULK_IDS) {
+            throw new IllegalArgumentException("At most " + MAX_BULK_IDS + " notifications can be marked at once");
         }
+        if (notificationIds.isEmpty()) {
+            return 0;
+        }
+        return notificationRepository.markReadByIds(new HashSet<>(notificationIds), user.getId());
     }
 
+    // The authenticated user is loaded for each request, so its counter needs no query of its own
     public long unreadCount(User user) {
-        return notificationRepository.countByRecipientAndReadIsFalse(user);
+        return Math.max(0, user.getUnreadNotifications());
+    }
+
+    @Scheduled(fixedDelayString = "${notifications.actor-purge-interval-ms:600000}")
+    @Transactional
+    public void purgeAggregateActors() {
+        notificationRepository.deleteActorsCreatedBefore(LocalDateTime.now().minus(aggregationWindow));
+    }
+
+    /**
+     * Folds a like or follow into the recipient's unread notification of the
+     * same type, on the same post, created within the aggregation window, and
+     * pushes it to the recipient's streams with its new count. Each actor is
+     * counted once per aggregate, however often they undo and repeat the
+     * action. An aggregate the recipient has read is closed: the next event
+     * inserts a new row, which shows at the top of the inbox.
+     */
+    private void aggregate(User recipient, User actor, Post post, NotificationType type, String action) {
+        Notification notification = null;
+        if (!aggregationWindow.isZero()) {
+            Long postId = post != null ? post.getId() : null;
+            notificationRepository.lockAggregate(recipient.getId() + ":" + type + ":" + postId);
+            LocalDateTime since = LocalDateTime.now().minus(aggregationWindow);
+            notification = (post != null
+                    ? notificationRepository.findAggregate(recipient.getId(), type, postId, since)
+                    : notificationRepository.findAggregateWithoutPost(recipient.getId(), type, since))
+                    .orElse(null);
+        }
+        if (notification == null) {
+            notification = post != null
+                    ? new Notification(recipient, actor, post, type, null)
+                    // Follows point at the follower
+                    : new Notification(recipient, actor, actor.getId(), type, null);
+            notification.setRecentActors(new String[] { actor.getUsername() });
+            notification.setMessage(aggregateMessage(notification, action));
+            deliver(notification);
+            if (!aggregationWindow.isZero()) {
+                notificationRepository.recordActor(notification.getId(), actor.getId(), notification.getCreatedAt());
+            }
+            return;
+        }
+
+        if (notificationRepository.recordActor(notification.getId(), actor.getId(), notification.getCreatedAt()) == 0) {
+            // Already counted, such as a like taken back and given again
+            return;
+        }
+        notification.addActor(actor, recentActorsLimit);
+        if (post == null) {
+            notification.setTargetId(actor.getId());
+        }
+        notification.setMessage(aggregateMessage(notification, action));
+        notificationStream.announce(notificationRepository.save(notification));
+    }
+
+    private static String aggregateMessage(Notification notification, String action) {
+        String[] recent = notification.getRecentActors();
+        int others = notification.getActorCount() - 1;
+        String actors;
+        if (others == 0) {
+            actors = recent[0];
+        } else if (others == 1 && recent.length > 1) {
+            actors = recent[0] + " and " + recent[1];
+        } else {
+            actors = recent[0] + " and " + others + (others == 1 ? " other" : " others");
+        }
+        return actors + " " + action;
+    }
+
+    private void deliver(Notification notification) {
+        notificationStream.announce(notificationRepository.save(notification));
+        userRepository.adjustUnreadNotifications(notification.getRecipient().getId(), 1);
+    }
+
+    private Notification setRead(Long notificationId, User user, boolean read) {
+        if (notificationRepository.updateRead(notificationId, user.getId(), read) > 0) {
+            userRepository.adjustUnreadNotifications(user.getId(), read ? -1 : 1);
+        }
+        return notificationRepository.findByIdAndRecipient(notificationId, user)
+                .orElseThrow(() -> new IllegalArgumentException("Notification not found"));
     }
 }
@@ -0,0 +1,272 @@
+package com.zone01.backend.service;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.zone01.backend.dto.NotificationDTO;
+import com.zone01.backend.entity.Notification;
+import com.zone01.backend.entity.User;
+import com.zone01.backend.repository.NotificationRepository;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Pushes new notifications to connected clients as server-sent events, so
+ * they no longer poll the notifications table. Notifications are announced
+ * through {@link ClusterBroadcast} in the transaction that creates them;
+ * every node hears of them only once they commit, and pushes to the clients
+ * connected to it. An idle client is a parked async request and holds no
+ * thread. Writes go through a small pool, one at a time per client, from a
+ * bounded buffer; a client that falls that far behind is disconnected and
+ * catches up through Last-Event-ID when it reconnects.
+ */
+@Component
+public class NotificationStream {
+
+    private static final String CHANNEL = "new_notifications";
+    private static final int LOAD_BATCH_SIZE = 500;
+    // Notifications do not always commit in created_at order, so a resume looks back this far; clients drop repeats
+    private static final long REPLAY_SKEW_SECONDS = 5;
+
+    private final class Client {
+
+        private final long userId;
+        private final SseEmitter emitter;
+        private final BlockingQueue<SseEmitter.SseEventBuilder> buffer;
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private volatile boolean closed;
+
+        Client(long userId, SseEmitter emitter) {
+            this.userId = userId;
+            this.emitter = emitter;
+            this.buffer = new ArrayBlockingQueue<>(bufferSize);
+        }
+
+        void offer(SseEmitter.SseEventBuilder event) {
+            if (closed) {
+                return;
+            }
+            if (!buffer.offer(event)) {
+                overflowed.increment();
+                close();
+                return;
+            }
+            if (draining.compareAndSet(false, true)) {
+                sender.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            try {
+                SseEmitter.SseEventBuilder event;
+                while (!closed && (event = buffer.poll()) != null) {
+                    emitter.send(event);
+                }
+            } catch (IOException | IllegalStateException ex) {
+                // The client went away; the container reports it through the emitter's callbacks too
+                closed = true;
+                remove(this);
+            } finally {
+                draining.set(false);
+            }
+            if (!closed && !buffer.isEmpty() && draining.compareAndSet(false, true)) {
+                sender.execute(this::drain);
+            }
+        }
+
+        void close() {
+            closed = true;
+            remove(this);
+            buffer.clear();
+            try {
+                emitter.complete();
+            } catch (IllegalStateException ex) {
+                // Already completed
+            }
+        }
+    }
+
+    private final NotificationRepository notificationRepository;
+    private final ClusterBroadcast clusterBroadcast;
+    private final long timeoutMs;
+    private final long retryMs;
+    private final int bufferSize;
+    private final int maxClientsPerUser;
+    private final int replayLimit;
+
+    private final Map<Long, Set<Client>> clients = new ConcurrentHashMap<>();
+    private final AtomicInteger clientCount = new AtomicInteger();
+    private final LongAdder pushed = new LongAdder();
+    private final LongAdder overflowed = new LongAdder();
+    private final ExecutorService sender;
+
+    public NotificationStream(NotificationRepository notificationRepository, ClusterBroadcast clusterBroadcast,
+            @Value("${notifications.stream.timeout-ms:1800000}") long timeoutMs,
+            @Value("${notifications.stream.retry-ms:5000}") long retryMs,
+            @Value("${notifications.stream.buffer-size:64}") int bufferSize,
+            @Value("${notifications.stream.max-connections-per-user:5}") int maxClientsPerUser,
+            @Value("${notifications.stream.replay-limit:100}") int replayLimit,
+            @Value("${notifications.stream.sender-threads:4}") int senderThreads) {
+        this.notificationRepository = notificationRepository;
+        this.clusterBroadcast = clusterBroadcast;
+        this.timeoutMs = timeoutMs;
+        this.retryMs = retryMs;
+        this.bufferSize = bufferSize;
+        this.maxClientsPerUser = maxClientsPerUser;
+        this.replayLimit = replayLimit;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.sender = Executors.newFixedThreadPool(senderThreads, runnable -> {
+            Thread thread = new Thread(runnable, "notification-push-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        // Anything announced while this node was not listening is lost for its clients
+        clusterBroadcast.subscribe(CHANNEL, true, this::deliver, () -> clients.values().forEach(own -> own.forEach(
+                client -> client.offer(SseEmitter.event().name("resync").data(Map.of())))));
+    }
+
+    /**
+     * Opens a stream for the user. It starts with the notifications missed
+     * since {@code lastEventId} when resuming, then the unread count.
+     */
+    public SseEmitter connect(User user, Long lastEventId) {
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Client client = new Client(user.getId(), emitter);
+        emitter.onCompletion(() -> remove(client));
+        emitter.onError(ex -> remove(client));
+
+        Set<Client> own = clients.compute(user.getId(), (id, current) -> {
+            Set<Client> updated = current != null ? current : new CopyOnWriteArraySet<>();
+            updated.add(client);
+            return updated;
+        });
+        clientCount.incrementAndGet();
+        // Each open tab holds a connection; past the cap the oldest one goes
+        if (own.size() > maxClientsPerUser) {
+            own.iterator().next().close();
+        }
+
+        if (lastEventId != null) {
+            replay(client, lastEventId);
+        }
+        // After the replay, so the count the client ends up with already includes what it missed
+        client.offer(SseEmitter.event().name("unread").reconnectTime(retryMs)
+                .data(Map.of("count", Math.max(0, user.getUnreadNotifications()))));
+        return emitter;
+    }
+
+    public void announce(Notification notification) {
+        announce(List.of(notification));
+    }
+
+    /** Announces notifications saved in the current transaction; they are pushed once it commits. */
+    public void announce(List<Notification> notifications) {
+        Map<Long, Long> recipientIds = new LinkedHashMap<>();
+        notifications.forEach(notification -> recipientIds.put(notification.getId(),
+                notification.getRecipient().getId()));
+        announce(recipientIds);
+    }
+
+    /** Same as {@link #announce(List)}, keyed by notification id to recipient id. */
+    public void announce(Map<Long, Long> recipientIdsByNotificationId) {
+        if (recipientIdsByNotificationId.isEmpty()) {
+            return;
+        }
+        clusterBroadcast.publish(CHANNEL, recipientIdsByNotificationId.entrySet().stream()
+                .map(entry -> entry.getValue() + ":" + entry.getKey())
+                .toList());
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("connections", clientCount.get());
+        stats.put("users", clients.size());
+        stats.put("pushed", pushed.sum());
+        stats.put("overflowed", overflowed.sum());
+        stats.put("listening", clusterBroadcast.isListening());
+        return stats;
+    }
+
+    // Also lets proxies and load balancers see traffic on otherwise idle connections
+    @Scheduled(fixedDelayString = "${notifications.stream.heartbeat-interval-ms:25000}")
+    public void heartbeat() {
+        clients.values().forEach(own -> own.forEach(client -> client.offer(SseEmitter.event().comment("ping"))));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        clients.values().forEach(own -> own.forEach(Client::close));
+        sender.shutdown();
+    }
+
+    private void replay(Client client, long lastEventId) {
+        LocalDateTime lastSeen = notificationRepository.findLastActivityAtByIdAndRecipientId(lastEventId, client.userId)
+                .orElse(null);
+        List<NotificationDTO> missed = lastSeen == null ? List.of()
+                : notificationRepository.findDtosByRecipientIdActiveSince(client.userId,
+                        lastSeen.minusSeconds(REPLAY_SKEW_SECONDS), PageRequest.of(0, replayLimit + 1));
+        if (lastSeen == null || missed.size() > replayLimit) {
+            // Too far behind to replay; the client reloads its list instead
+            client.offer(SseEmitter.event().name("resync").data(Map.of()));
+            return;
+        }
+        missed.forEach(notification -> client.offer(notificationEvent(notification)));
+    }
+
+    private void deliver(List<String> payloads) {
+        Map<Long, Long> recipientIds = new HashMap<>();
+        for (String payload : payloads) {
+            int separator = payload.indexOf(':');
+            long recipientId = Long.parseLong(payload.substring(0, separator));
+            if (clients.containsKey(recipientId)) {
+                recipientIds.put(Long.parseLong(payload.substring(separator + 1)), recipientId);
+            }
+        }
+        List<Long> ids = new ArrayList<>(recipientIds.keySet());
+        for (int from = 0; from < ids.size(); from += LOAD_BATCH_SIZE) {
+            Collection<Long> batch = ids.subList(from, Math.min(from + LOAD_BATCH_SIZE, ids.size()));
+            for (NotificationDTO notification : notificationRepository.findDtosByIdIn(batch)) {
+                Set<Client> own = clients.get(recipientIds.get(notification.getId()));
+                if (own != null) {
+                    own.forEach(client -> client.offer(notificationEvent(notification)));
+                }
+            }
+        }
+    }
+
+    private SseEmitter.SseEventBuilder notificationEvent(NotificationDTO notification) {
+        pushed.increment();
+        return SseEmitter.event().id(String.valueOf(notification.getId())).name("notification").data(notification);
+    }
+
+    private void remove(Client client) {
+        clients.computeIfPresent(client.userId, (id, own) -> {
+            if (own.remove(client)) {
+                clientCount.decrementAndGet();
+            }
+            return own.isEmpty() ? null : own;
+        });
+    }
+}
@@ -0,0 +1,209 @@
+package com.zone01.backend.service;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.zone01.backend.entity.OutboxEvent;
+import com.zone01.backend.entity.Post;
+import com.zone01.backend.entity.User;
+import com.zone01.backend.repository.OutboxEventRepository;
+import com.zone01.backend.repository.PostRepository;
+import com.zone01.backend.repository.UserRepository;
+
+/**
+ * Drains the outbox. Events are claimed in batches with SKIP LOCKED and
+ * handled in the same transaction that marks them processed, so their side
+ * effects commit exactly once. A batch that fails is rolled back whole and
+ * redone one event per transaction, which isolates the failing event; it is
+ * retried with exponential backoff and is left in the table, counted as
+ * dead, after {@code outbox.max-attempts}.
+ */
+@Component
+public class OutboxDispatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(OutboxDispatcher.class);
+    private static final long MAX_BACKOFF_MS = 3_600_000;
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final NotificationService notificationService;
+    private final TimelineService timelineService;
+    private final PostRepository postRepository;
+    private final UserRepository userRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int maxAttempts;
+    private final long retryDelayMs;
+    private final long retentionHours;
+    private final int batchSize;
+
+    private final ReentrantLock draining = new ReentrantLock();
+    private final AtomicBoolean pending = new AtomicBoolean();
+    private final LongAdder dispatched = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    // Events still to be redone singly after a batch failed; only touched while holding the drain lock
+    private int isolating;
+
+    public OutboxDispatcher(OutboxEventRepository outboxEventRepository,
+            NotificationService notificationService,
+            TimelineService timelineService,
+            PostRepository postRepository,
+            UserRepository userRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${outbox.max-attempts:10}") int maxAttempts,
+            @Value("${outbox.retry-delay-ms:1000}") long retryDelayMs,
+            @Value("${outbox.retention-hours:24}") long retentionHours,
+            @Value("${outbox.batch-size:50}") int batchSize) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.notificationService = notificationService;
+        this.timelineService = timelineService;
+        this.postRepository = postRepository;
+        this.userRepository = userRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.maxAttempts = maxAttempts;
+        this.retryDelayMs = retryDelayMs;
+        this.retentionHours = retentionHours;
+        this.batchSize = batchSize;
+    }
+
+    @Async
+    public void wakeUp() {
+        drain();
+    }
+
+    /**
+     * Dispatches everything that is due. A call made while another thread
+     * is draining is not lost: the running drain goes round once more.
+     */
+    @Scheduled(fixedDelayString = "${outbox.poll-interval-ms:5000}")
+    public void drain() {
+        pending.set(true);
+        while (pending.get() && draining.tryLock()) {
+            try {
+                while (pending.getAndSet(false)) {
+                    while (dispatchBatch()) {
+                        // Keep going until nothing is due
+                    }
+                }
+            } finally {
+                draining.unlock();
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${outbox.cleanup-interval-ms:3600000}")
+    public void purgeProcessed() {
+        Integer deleted = transactionTemplate.execute(status -> outboxEventRepository
+                .deleteProcessedBefore(LocalDateTime.now().minusHours(retentionHours)));
+        if (deleted != null && deleted > 0) {
+            log.info("Purged {} processed outbox events", deleted);
+        }
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("pending", outboxEventRepository.countPending(maxAttempts));
+        stats.put("dead", outboxEventRepository.countDead(maxAttempts));
+        stats.put("dispatched", dispatched.sum());
+        stats.put("failures", failures.sum());
+        return stats;
+    }
+
+    // Returns false when nothing was due, or when failures cannot even be recorded
+    private boolean dispatchBatch() {
+        int limit = isolating > 0 ? 1 : batchSize;
+        AtomicReference<List<OutboxEvent>> claimed = new AtomicReference<>(List.of());
+        try {
+            Integer handled = transactionTemplate.execute(status -> {
+                List<OutboxEvent> batch = outboxEventRepository.claimBatch(LocalDateTime.now(), maxAttempts, limit);
+                claimed.set(batch);
+                for (OutboxEvent event : batch) {
+                    handle(event);
+                    event.setProcessedAt(LocalDateTime.now());
+                }
+                return batch.size();
+            });
+            if (handled == null || handled == 0) {
+                isolating = 0;
+                return false;
+            }
+            dispatched.add(handled);
+            isolating = Math.max(isolating - handled, 0);
+            return true;
+        } catch (RuntimeException ex) {
+            List<OutboxEvent> batch = claimed.get();
+            if (batch.isEmpty()) {
+                log.warn("Could not claim outbox events: {}", ex.getMessage());
+                return false;
+            }
+            if (batch.size() > 1) {
+                // Nothing in the batch committed; redo it singly so only the failing event is held back
+                isolating = batch.size();
+                return true;
+            }
+            isolating = Math.max(isolating - 1, 0);
+            return recordFailure(batch.get(0), ex);
+        }
+    }
+
+    private boolean recordFailure(OutboxEvent event, RuntimeException cause) {
+        failures.increment();
+        int attempts = event.getAttempts() + 1;
+        long delayMs = Math.min(retryDelayMs << Math.min(attempts - 1, 30), MAX_BACKOFF_MS);
+        String error = String.valueOf(cause.getMessage());
+        if (attempts >= maxAttempts) {
+            log.error("Giving up on outbox event {} ({}) after {} attempts", event.getId(), event.getType(),
+                    attempts, cause);
+        } else {
+            log.warn("Outbox event {} ({}) failed, retrying in {} ms: {}", event.getId(), event.getType(),
+                    delayMs, error);
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> outboxEventRepository.recordFailure(event.getId(),
+                    error.length() > 1000 ? error.substring(0, 1000) : error,
+                    LocalDateTime.now().plusNanos(delayMs * 1_000_000)));
+            return true;
+        } catch (RuntimeException ex) {
+            log.warn("Could not record outbox failure for event {}: {}", event.getId(), ex.getMessage());
+            return false;
+        }
+    }
+
+    // Subjects deleted or hidden since the event was recorded are skipped, not retried
+    private void handle(OutboxEvent event) {
+        switch (event.getType()) {
+            case POST_PUBLISHED -> visiblePost(event.getSubjectId()).ifPresent(post -> {
+                notificationService.notifySubscribers(post.getId());
+                timelineService.fanOut(post.getId(), post.getAuthor().getId(), post.getCreatedAt());
+            });
+            case POST_LIKED -> actor(event).ifPresent(actor -> visiblePost(event.getSubjectId())
+                    .ifPresent(post -> notificationService.createLikeNotification(actor, post)));
+            case POST_COMMENTED -> actor(event).ifPresent(actor -> visiblePost(event.getSubjectId())
+                    .ifPresent(post -> notificationService.createCommentNotification(actor, post)));
+            case USER_FOLLOWED -> actor(event).ifPresent(actor -> userRepository.findById(event.getSubjectId())
+                    .ifPresent(target -> notificationService.createFollowNotification(actor, target)));
+        }
+    }
+
+    private Optional<Post> visiblePost(Long postId) {
+        return postRepository.findById(postId).filter(post -> !post.isHidden());
+    }
+
+    private Optional<User> actor(OutboxEvent event) {
+        return userRepository.findById(event.getActorId());
+    }
+}
@@ -0,0 +1,42 @@
+package com.zone01.backend.service;
+
+import java.time.LocalDateTime;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.zone01.backend.entity.OutboxEvent;
+import com.zone01.backend.entity.OutboxEventType;
+import com.zone01.backend.repository.OutboxEventRepository;
+
+import jakarta.transaction.Transactional;
+
+/**
+ * Records domain events in the caller's transaction. Side effects such as
+ * notifications and timeline fan-out then run in {@link OutboxDispatcher}
+ * once the change is committed, instead of inside the request that made it.
+ */
+@Service
+public class OutboxService {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final OutboxDispatcher outboxDispatcher;
+
+    public OutboxService(OutboxEventRepository outboxEventRepository, OutboxDispatcher outboxDispatcher) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.outboxDispatcher = outboxDispatcher;
+    }
+
+    @Transactional(Transactional.TxType.MANDATORY)
+    public void record(OutboxEventType type, Long actorId, Long subjectId) {
+        outboxEventRepository.save(new OutboxEvent(type, actorId, subjectId, LocalDateTime.now()));
+        // The scheduled poll would pick it up too; this only saves the wait
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                outboxDispatcher.wakeUp();
+            }
+        });
+    }
+}
@@ -0,0 +1,196 @@
+package com.zone01.backend.service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.zone01.backend.event.PostChangedEvent;
+import com.zone01.backend.util.CursorUtil;
+import com.zone01.backend.util.InvertedIndex;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Keeps an in-process {@link InvertedIndex} of visible posts in step with the
+ * database so searches do not touch Postgres. Restarts load the last
+ * memory-mapped snapshot and re-index only posts whose revision changed;
+ * committed post changes are applied as they happen, and a periodic
+ * reconcile repairs anything missed, such as username changes or cascading
+ * user deletes.
+ */
+@Component
+public class PostSearchIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(PostSearchIndex.class);
+    private static final int LOAD_BATCH_SIZE = 500;
+    private static final String POST_TEXT_SELECT = "SELECT p.id, p.title, p.content, u.username, p.updated_at, p.created_at "
+            + "FROM posts p JOIN users u ON u.id = p.user_id WHERE p.hidden = false ";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Path snapshotPath;
+
+    private volatile InvertedIndex index = new InvertedIndex();
+    private volatile boolean ready;
+    private long snapshotModifications = -1;
+    // Posts changed by events while a reconcile scan is running; the scan's view of them may be stale
+    private final Set<Long> touchedDuringScan = ConcurrentHashMap.newKeySet();
+
+    public PostSearchIndex(JdbcTemplate jdbcTemplate,
+            @Value("${search.index.snapshot-path:data/post-search.idx}") String snapshotPath) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.snapshotPath = Paths.get(snapshotPath).toAbsolutePath().normalize();
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public List<CursorUtil.RankPosition> search(String query, CursorUtil.RankPosition after, int limit) {
+        List<InvertedIndex.Hit> hits = after == null
+                ? index.search(query, limit, null, 0)
+                : index.search(query, limit, after.rank(), after.id());
+        List<CursorUtil.RankPosition> positions = new ArrayList<>(hits.size());
+        for (InvertedIndex.Hit hit : hits) {
+            positions.add(new CursorUtil.RankPosition(hit.score(), hit.postId()));
+        }
+        return positions;
+    }
+
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (Files.exists(snapshotPath)) {
+            try {
+                index = InvertedIndex.readFrom(snapshotPath);
+                snapshotModifications = index.modifications();
+                log.info("Loaded search index snapshot with {} posts", index.size());
+            } catch (IOException ex) {
+                log.warn("Discarding unreadable search index snapshot {}: {}", snapshotPath, ex.getMessage());
+            }
+        }
+        reconcile();
+    }
+
+    @Async
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onPostChanged(PostChangedEvent event) {
+        touchedDuringScan.add(event.postId());
+        switch (event.change()) {
+            case PUBLISHED, UPDATED, UNHIDDEN -> reindex(event.postId());
+            case HIDDEN, DELETED -> index.remove(event.postId());
+        }
+    }
+
+    /**
+     * Diffs the index against the visible posts' revisions and re-reads only
+     * the text of posts that are new or changed.
+     */
+    @Scheduled(initialDelayString = "${search.index.reconcile-interval-ms:600000}",
+            fixedDelayString = "${search.index.reconcile-interval-ms:600000}")
+    public synchronized void reconcile() {
+        touchedDuringScan.clear();
+        Map<Long, Long> current = new HashMap<>();
+        jdbcTemplate.query("SELECT p.id, p.updated_at, p.created_at, u.username "
+                + "FROM posts p JOIN users u ON u.id = p.user_id WHERE p.hidden = false",
+                rs -> {
+                    current.put(rs.getLong("id"), stamp(rs));
+                });
+
+        List<Long> stale = new ArrayList<>();
+        current.forEach((postId, stamp) -> {
+            if (!stamp.equals(index.stamp(postId))) {
+                stale.add(postId);
+            }
+        });
+        int removed = 0;
+        for (long postId : index.postIds()) {
+            if (!current.containsKey(postId) && !touchedDuringScan.contains(postId) && index.remove(postId)) {
+                removed++;
+            }
+        }
+        stale.removeAll(touchedDuringScan);
+        for (int from = 0; from < stale.size(); from += LOAD_BATCH_SIZE) {
+            List<Long> batch = stale.subList(from, Math.min(from + LOAD_BATCH_SIZE, stale.size()));
+            String placeholders = String.join(",", Collections.nCopies(batch.size(), "?"));
+            jdbcTemplate.query(POST_TEXT_SELECT + "AND p.id IN (" + placeholders + ")",
+                    rs -> {
+                        put(rs);
+                    }, batch.toArray());
+        }
+        if (!stale.isEmpty() || removed > 0) {
+            log.info("Search index reconciled: {} posts re-indexed, {} removed, {} indexed", stale.size(), removed,
+                    index.size());
+        }
+        // Searches stay on Postgres until a first reconcile has succeeded
+        ready = true;
+    }
+
+    @Scheduled(initialDelayString = "${search.index.snapshot-interval-ms:300000}",
+            fixedDelayString = "${search.index.snapshot-interval-ms:300000}")
+    public synchronized void snapshot() {
+        long modifications = index.modifications();
+        if (!ready || modifications == snapshotModifications) {
+            return;
+        }
+        try {
+            index.writeTo(snapshotPath);
+            snapshotModifications = modifications;
+        } catch (IOException ex) {
+            log.warn("Could not write search index snapshot {}: {}", snapshotPath, ex.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void snapshotOnShutdown() {
+        snapshot();
+    }
+
+    private void reindex(Long postId) {
+        List<Long> found = jdbcTemplate.query(POST_TEXT_SELECT + "AND p.id = ?",
+                (rs, rowNum) -> {
+                    put(rs);
+                    return postId;
+                }, postId);
+        if (found.isEmpty()) {
+            // Deleted or hidden again before this change was applied
+            index.remove(postId);
+        }
+    }
+
+    private void put(ResultSet rs) throws SQLException {
+        index.put(rs.getLong("id"), stamp(rs), rs.getString("title"), rs.getString("content"),
+                rs.getString("username"));
+    }
+
+    // Posts keep their updated_at when the author is renamed, so the username is part of the revision
+    private static long stamp(ResultSet rs) throws SQLException {
+        java.sql.Timestamp updatedAt = rs.getTimestamp("updated_at");
+        if (updatedAt == null) {
+            updatedAt = rs.getTimestamp("created_at");
+        }
+        long millis = updatedAt == null ? 0L : updatedAt.getTime();
+        return 31 * millis + rs.getString("username").hashCode();
+    }
+}
@@ -4,44 +4,79 @@ import java.time.LocalDateTime;
 import java.util.List;
 import java.util.stream.Collectors;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 
+import com.zone01.backend.dto.CursorPageDTO;
 import com.zone01.backend.dto.PostDTO;
+import com.zone01.backend.dto.PostMediaDTO;
+import com.zone01.backend.dto.PostSummaryDTO;
 import com.zone01.backend.entity.MediaType;
+import com.zone01.backend.entity.OutboxEventType;
 import com.zone01.backend.entity.Post;
 import com.zone01.backend.entity.User;
+import com.zone01.backend.event.PostChangedEvent;
 import com.zone01.backend.exception.PostNotFoundException;
 import com.zone01.backend.exception.UnauthorizedActionException;
 import com.zone01.backend.exception.UserNotFoundException;
 import com.zone01.backend.repository.CommentRepository;
-import com.zone01.backend.repository.LikeRepository;
+import com.zone01.backend.repository.PostMediaRepository;
 import com.zone01.backend.repository.PostRepository;
 import com.zone01.backend.repository.UserRepository;
+import com.zone01.backend.util.CursorUtil;
+import com.zone01.backend.util.ResourceVersion;
 
 import jakarta.transaction.Transactional;
 
 @Service
 public class PostService {
 
+    public static final int DEFAULT_PAGE_SIZE = 20;
+    public static final int MAX_PAGE_SIZE = 100;
+    private static final int MAX_SEARCH_QUERY_LENGTH = 200;
+
     private final PostRepository postRepository;
+    private final PostMediaRepository postMediaRepository;
     private final UserRepository userRepository;
-    private final LikeRepository likeRepository;
     private final CommentRepository commentRepository;
-    private final SubscriptionService subscriptionService;
-    private final NotificationService notificationService;
+    private final OutboxService outboxService;
+    private final FileStorageService fileStorageService;
+    private final TimelineService timelineService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final LikeCounterBuffer likeCounterBuffer;
+    private final LikedPostsCache likedPostsCache;
+    private final PostSearchIndex postSearchIndex;
+    private final TrendingService trendingService;
+    private final boolean indexSearch;
 
     public PostService(PostRepository postRepository,
+            PostMediaRepository postMediaRepository,
             UserRepository userRepository,
-            LikeRepository likeRepository,
             CommentRepository commentRepository,
-            SubscriptionService subscriptionService,
-            NotificationService notificationService) {
+            OutboxService outboxService,
+            FileStorageService fileStorageService,
+            TimelineService timelineService,
+            ApplicationEventPublisher eventPublisher,
+            LikeCounterBuffer likeCounterBuffer,
+            LikedPostsCache likedPostsCache,
+            PostSearchIndex postSearchIndex,
+            TrendingService trendingService,
+            @Value("${search.engine:index}") String searchEngine) {
         this.postRepository = postRepository;
+        this.postMediaRepository = postMediaRepository;
         this.userRepository = userRepository;
-        this.likeRepository = likeRepository;
         this.commentRepository = commentRepository;
-        this.subscriptionService = subscriptionService;
-        this.notificationService = notificationService;
+        this.outboxService = outboxService;
+        this.fileStorageService = fileStorageService;
+        this.timelineService = timelineService;
+        this.eventPublisher = eventPublisher;
+        this.likeCounterBuffer = likeCounterBuffer;
+        this.likedPostsCache = likedPostsCache;
+        this.postSearchIndex = postSearchIndex;
+        this.trendingService = trendingService;
+        this.indexSearch = "index".equalsIgnoreCase(searchEngine);
     }
 
     @Transactional
@@ -68,7 +103,8 @@ public class PostService {
         }
 
         Post saved = postRepository.save(post);
-        notificationService.notifySubscribers(saved, subscriptionService.getSubscriberUsers(author));
+        outboxService.record(OutboxEventType.POST_PUBLISHED, author.getId(), saved.getId());
+        publish(saved, PostChangedEvent.Change.PUBLISHED);
         return saved;
     }
 
@@ -90,6 +126,7 @@ public class PostService {
 
         // Update media: for simplicity, we replace all media
         if (postDTO.getMedia() != null) {
+            List<String> previousUrls = mediaUrls(post);
             post.getMedia().clear();
             for (com.zone01.backend.dto.PostMediaDTO mDto : postDTO.getMedia()) {
                 com.zone01.backend.entity.PostMedia media = new com.zone01.backend.entity.PostMedia();
@@ -99,10 +136,16 @@ public class PostService {
                 media.setPost(post);
                 post.getMedia().add(media);
             }
+            List<String> keptUrls = mediaUrls(post);
+            fileStorageService.discard(previousUrls.stream()
+                    .filter(url -> !keptUrls.contains(url))
+                    .toList());
         }
         post.setUpdatedAt(LocalDateTime.now());
 
-        return postRepository.save(post);
+        Post saved = postRepository.save(post);
+        publish(saved, PostChangedEvent.Change.UPDATED);
+        return saved;
     }
 
     @Transactional
@@ -119,14 +162,20 @@ public class PostService {
             throw new IllegalArgumentException("Cannot delete a hidden post");
         }
 
+        fileStorageService.discard(mediaUrls(post));
+        userRepository.releaseUnreadNotificationsForPost(post.getId());
         postRepository.delete(post);
+        publish(post, PostChangedEvent.Change.DELETED);
     }
 
     @Transactional
     public void deletePostAsAdmin(Long postId) {
         Post post = postRepository.findById(postId)
                 .orElseThrow(() -> new PostNotFoundException(postId));
+        fileStorageService.discard(mediaUrls(post));
+        userRepository.releaseUnreadNotificationsForPost(post.getId());
         postRepository.delete(post);
+        publish(post, PostChangedEvent.Change.DELETED);
     }
 
     @Transactional
@@ -135,6 +184,7 @@ public class PostService {
                 .orElseThrow(() -> new PostNotFoundException(postId));
         post.setHidden(true);
         postRepository.save(post);
+        publish(post, PostChangedEvent.Change.HIDDEN);
     }
 
     @Transactional
@@ -143,6 +193,12 @@ public class PostService {
                 .orElseThrow(() -> new PostNotFoundException(postId));
         post.setHidden(false);
         postRepository.save(post);
+        publish(post, PostChangedEvent.Change.UNHIDDEN);
+    }
+
+    @Transactional
+    public void adjustCommentCount(Long postId, long delta) {
+        postRepository.adjustCommentCount(postId, delta);
     }
 
     public List<Post> getAllPosts() {
@@ -161,47 +217,152 @@ public class PostService {
         return postRepository.count();
     }
 
-    public List<PostDTO> getPostsByUsername(String username, User currentUser) {
-        List<Post> posts = postRepository.findVisibleByAuthorUsernameOrderByCreatedAtDesc(username);
-        java.util.Set<Long> likedPostIds = currentUser != null ? likeRepository.findPostIdsLikedByUser(currentUser)
+    public CursorPageDTO<PostSummaryDTO> getPostsByUsername(String username, User currentUser, String cursor,
+            int limit) {
+        int pageSize = CursorUtil.clampLimit(limit, MAX_PAGE_SIZE);
+        java.util.Optional<Long> authorId = userRepository.findIdByUsername(username);
+        if (authorId.isEmpty()) {
+            return new CursorPageDTO<>(List.of(), null);
+        }
+        PageRequest window = PageRequest.ofSize(pageSize + 1);
+        List<PostSummaryDTO> posts;
+        if (cursor == null || cursor.isBlank()) {
+            posts = postRepository.findVisibleAuthorPage(authorId.get(), window);
+        } else {
+            CursorUtil.Position position = CursorUtil.decode(cursor);
+            posts = postRepository.findVisibleAuthorPageBefore(authorId.get(), position.createdAt(), position.id(),
+                    window);
+        }
+        return toPage(posts, pageSize, currentUser);
+    }
+
+    public ResourceVersion getPostsByUsernameVersion(String username, User currentUser, String cursor, int limit) {
+        int pageSize = CursorUtil.clampLimit(limit, MAX_PAGE_SIZE);
+        java.util.Optional<Long> authorId = userRepository.findIdByUsername(username);
+        if (authorId.isEmpty()) {
+            return ResourceVersion.of(null);
+        }
+        // Covers the extra row that decides whether the page has a next cursor
+        PostRepository.PageVersion version;
+        if (cursor == null || cursor.isBlank()) {
+            version = postRepository.findVisibleAuthorPageVersion(authorId.get(), pageSize + 1);
+        } else {
+            CursorUtil.Position position = CursorUtil.decode(cursor);
+            version = postRepository.findVisibleAuthorPageVersionBefore(authorId.get(), position.createdAt(),
+                    position.id(), pageSize + 1);
+        }
+        List<Long> postIds = version.getIds() == null ? List.of() : List.of(version.getIds());
+        java.util.Set<Long> likedPostIds = currentUser != null && !postIds.isEmpty()
+                ? new java.util.TreeSet<>(likedPostsCache.likedAmong(currentUser.getId(), postIds))
                 : java.util.Collections.emptySet();
+        List<Object> pendingLikes = new java.util.ArrayList<>();
+        for (Long postId : postIds) {
+            long pending = likeCounterBuffer.pending(postId);
+            if (pending != 0) {
+                pendingLikes.add(postId + ":" + pending);
+            }
+        }
+        // Removing a post moves no timestamp, so the list only has an ETag
+        return ResourceVersion.of(null, version.getPostCount(), version.getDigest(), version.getAuthorUpdatedAt(),
+                pendingLikes, likedPostIds);
+    }
 
-        return posts.stream()
-                .map(post -> toDto(post, likedPostIds))
-                .collect(Collectors.toList());
+    public List<PostSummaryDTO> getAllPostsDTO(User currentUser) {
+        List<PostSummaryDTO> posts = postRepository.findAllVisibleByOrderByCreatedAtDesc();
+        return decorate(posts, currentUser);
     }
 
-    public List<PostDTO> getAllPostsDTO(User currentUser) {
-        List<Post> posts = postRepository.findAllVisibleByOrderByCreatedAtDesc();
-        java.util.Set<Long> likedPostIds = currentUser != null ? likeRepository.findPostIdsLikedByUser(currentUser)
-                : java.util.Collections.emptySet();
+    public CursorPageDTO<PostSummaryDTO> getAllPostsDTO(User currentUser, String cursor, int limit) {
+        int pageSize = CursorUtil.clampLimit(limit, MAX_PAGE_SIZE);
+        PageRequest window = PageRequest.ofSize(pageSize + 1);
+        List<PostSummaryDTO> posts;
+        if (cursor == null || cursor.isBlank()) {
+            posts = postRepository.findVisiblePage(window);
+        } else {
+            CursorUtil.Position position = CursorUtil.decode(cursor);
+            posts = postRepository.findVisiblePageBefore(position.createdAt(), position.id(), window);
+        }
+        return toPage(posts, pageSize, currentUser);
+    }
 
-        return posts.stream()
-                .map(post -> toDto(post, likedPostIds))
+    public CursorPageDTO<PostSummaryDTO> searchPosts(String query, User currentUser, String cursor, int limit) {
+        String terms = query == null ? "" : query.strip();
+        if (terms.isEmpty()) {
+            throw new IllegalArgumentException("Search query is required");
+        }
+        if (terms.length() > MAX_SEARCH_QUERY_LENGTH) {
+            throw new IllegalArgumentException("Search query is too long");
+        }
+        int pageSize = CursorUtil.clampLimit(limit, MAX_PAGE_SIZE);
+        CursorUtil.RankPosition after = cursor == null || cursor.isBlank() ? null : CursorUtil.decodeRank(cursor);
+        // The in-process index serves searches once loaded; until then, or when disabled, Postgres does
+        List<CursorUtil.RankPosition> hits = indexSearch && postSearchIndex.isReady()
+                ? postSearchIndex.search(terms, after, pageSize + 1)
+                : searchDatabase(terms, after, pageSize + 1);
+
+        String nextCursor = null;
+        if (hits.size() > pageSize) {
+            hits = hits.subList(0, pageSize);
+            CursorUtil.RankPosition last = hits.get(pageSize - 1);
+            nextCursor = CursorUtil.encodeRank(last.rank(), last.id());
+        }
+        if (hits.isEmpty()) {
+            return new CursorPageDTO<>(List.of(), null);
+        }
+        List<Long> ids = hits.stream().map(CursorUtil.RankPosition::id).toList();
+        java.util.Map<Long, PostSummaryDTO> byId = postRepository.findSummariesByIdIn(ids).stream()
+                .collect(Collectors.toMap(PostSummaryDTO::getId, post -> post));
+        // Keep rank order; a post deleted or hidden since it was matched is skipped
+        List<PostSummaryDTO> posts = ids.stream()
+                .map(byId::get)
+                .filter(post -> post != null && !post.isHidden())
                 .collect(Collectors.toList());
+        return new CursorPageDTO<>(decorate(posts, currentUser), nextCursor);
     }
 
-    public List<PostDTO> getAllPostsForAdmin() {
-        List<Post> posts = postRepository.findAllByOrderByCreatedAtDesc();
-        return posts.stream()
-                .map(post -> toDto(post, java.util.Collections.emptySet()))
+    private List<CursorUtil.RankPosition> searchDatabase(String terms, CursorUtil.RankPosition after, int limit) {
+        List<PostRepository.SearchHit> hits = after == null
+                ? postRepository.searchVisible(terms, limit)
+                : postRepository.searchVisibleAfter(terms, after.rank(), after.id(), limit);
+        return hits.stream()
+                .map(hit -> new CursorUtil.RankPosition(hit.getRank(), hit.getId()))
                 .collect(Collectors.toList());
     }
 
-    public List<PostDTO> getFeedPosts(User user) {
-        var followedIds = subscriptionService.getFollowedAuthorIds(user);
-        if (followedIds.isEmpty()) {
-            return List.of();
+    public List<PostSummaryDTO> getTrendingPosts(User currentUser, int limit) {
+        List<PostSummaryDTO> top = trendingService.getTop();
+        int size = Math.min(CursorUtil.clampLimit(limit, MAX_PAGE_SIZE), top.size());
+        List<PostSummaryDTO> posts = top.subList(0, size);
+        if (currentUser == null || posts.isEmpty()) {
+            return posts;
         }
-        List<Post> posts = postRepository.findVisibleByAuthorIdInOrderByCreatedAtDesc(followedIds);
-        java.util.Set<Long> likedPostIds = user != null ? likeRepository.findPostIdsLikedByUser(user)
-                : java.util.Collections.emptySet();
-
+        // The trending page is shared between requests, so the viewer's liked state goes on copies
+        java.util.Set<Long> likedPostIds = likedPostsCache.likedAmong(currentUser.getId(),
+                posts.stream().map(PostSummaryDTO::getId).toList());
         return posts.stream()
-                .map(post -> toDto(post, likedPostIds))
+                .map(post -> post.copy().withIsLiked(likedPostIds.contains(post.getId())))
                 .collect(Collectors.toList());
     }
 
+    public List<PostDTO> getAllPostsForAdmin() {
+        List<PostDTO> posts = postRepository.findAllDtosByOrderByCreatedAtDesc();
+        if (posts.isEmpty()) {
+            return posts;
+        }
+        java.util.Map<Long, List<PostMediaDTO>> mediaByPost = mediaFor(posts.stream().map(PostDTO::getId).toList());
+        for (PostDTO post : posts) {
+            post.setMedia(mediaByPost.getOrDefault(post.getId(), new java.util.ArrayList<>()));
+            withPendingLikes(post);
+        }
+        return posts;
+    }
+
+    public CursorPageDTO<PostSummaryDTO> getFeedPosts(User user, String cursor, int limit) {
+        int pageSize = CursorUtil.clampLimit(limit, MAX_PAGE_SIZE);
+        List<PostSummaryDTO> posts = timelineService.getPage(user.getId(), cursor, pageSize + 1);
+        return toPage(posts, pageSize, user);
+    }
+
     public Post getPostById(Long id) {
         return postRepository.findById(id)
                 .orElseThrow(() -> new PostNotFoundException(id));
@@ -209,13 +370,72 @@ public class PostService {
 
     public PostDTO getPostDetails(Long id, User currentUser) {
         Post post = getPostById(id);
-        boolean isLiked = currentUser != null && likeRepository.existsByUserAndPost(currentUser, post);
-        return new PostDTO(post).withIsLiked(isLiked);
+        boolean isLiked = currentUser != null
+                && likedPostsCache.likedAmong(currentUser.getId(), List.of(post.getId())).contains(post.getId());
+        return withPendingLikes(new PostDTO(post)).withIsLiked(isLiked);
+    }
+
+    public ResourceVersion getPostVersion(Long id, User currentUser) {
+        PostRepository.PostVersion version = postRepository.findVersionById(id)
+                .orElseThrow(() -> new PostNotFoundException(id));
+        boolean isLiked = currentUser != null
+                && likedPostsCache.likedAmong(currentUser.getId(), List.of(id)).contains(id);
+        return ResourceVersion.of(ResourceVersion.latest(version.getUpdatedAt(), version.getAuthorUpdatedAt()),
+                id, version.getUpdatedAt(), version.getLikeCount() + likeCounterBuffer.pending(id),
+                version.getCommentCount(), version.getHidden(), version.getAuthorUpdatedAt(), isLiked);
+    }
+
+    private CursorPageDTO<PostSummaryDTO> toPage(List<PostSummaryDTO> posts, int pageSize, User currentUser) {
+        String nextCursor = null;
+        if (posts.size() > pageSize) {
+            posts = posts.subList(0, pageSize);
+            PostSummaryDTO last = posts.get(pageSize - 1);
+            nextCursor = CursorUtil.encode(last.getCreatedAt(), last.getId());
+        }
+        return new CursorPageDTO<>(decorate(posts, currentUser), nextCursor);
+    }
+
+    // Fixed statement count per list: liked state and media for the whole page come from one query each
+    private List<PostSummaryDTO> decorate(List<PostSummaryDTO> posts, User currentUser) {
+        if (posts.isEmpty()) {
+            return posts;
+        }
+        List<Long> postIds = posts.stream().map(PostSummaryDTO::getId).toList();
+        java.util.Set<Long> likedPostIds = currentUser != null
+                ? likedPostsCache.likedAmong(currentUser.getId(), postIds)
+                : java.util.Collections.emptySet();
+        java.util.Map<Long, List<PostMediaDTO>> mediaByPost = mediaFor(postIds);
+        for (PostSummaryDTO post : posts) {
+            post.setMedia(mediaByPost.getOrDefault(post.getId(), new java.util.ArrayList<>()));
+            long pending = likeCounterBuffer.pending(post.getId());
+            if (pending != 0) {
+                post.withCounts(post.getLikesCount() + pending, post.getCommentsCount());
+            }
+            post.withIsLiked(likedPostIds.contains(post.getId()));
+        }
+        return posts;
+    }
+
+    private java.util.Map<Long, List<PostMediaDTO>> mediaFor(List<Long> postIds) {
+        return postMediaRepository.findDtosByPostIdIn(postIds).stream()
+                .collect(Collectors.groupingBy(PostMediaDTO::getPostId));
+    }
+
+    private PostDTO withPendingLikes(PostDTO postDTO) {
+        long pending = likeCounterBuffer.pending(postDTO.getId());
+        if (pending == 0) {
+            return postDTO;
+        }
+        return postDTO.withCounts(postDTO.getLikesCount() + pending, postDTO.getCommentsCount());
+    }
+
+    private static List<String> mediaUrls(Post post) {
+        return post.getMedia().stream().map(com.zone01.backend.entity.PostMedia::getMediaUrl).toList();
     }
 
-    private PostDTO toDto(Post post, java.util.Set<Long> likedPostIds) {
-        PostDTO postDTO = new PostDTO(post);
-        return postDTO.withIsLiked(likedPostIds.contains(post.getId()));
+    private void publish(Post post, PostChangedEvent.Change change) {
+        eventPublisher.publishEvent(
+                new PostChangedEvent(post.getId(), post.getAuthor().getId(), post.getCreatedAt(), change));
     }
 
     private MediaType guessMediaType(String mediaUrl) {
@@ -0,0 +1,171 @@
+package com.zone01.backend.service;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zone01.backend.dto.CursorPageDTO;
+import com.zone01.backend.dto.PostSummaryDTO;
+import com.zone01.backend.event.PostChangedEvent;
+import com.zone01.backend.event.PostEngagementEvent;
+
+/**
+ * The first pages of the public timeline as anonymous visitors see them,
+ * serialized once and served as bytes. Anonymous lists are identical for
+ * everyone, so a burst of logged-out traffic is answered without touching
+ * the database. Hides and deletes of a listed post rebuild the snapshot
+ * right away; other changes are batched into the next refresh. Post changes
+ * are broadcast to the other nodes, which stop serving a snapshot listing a
+ * hidden or deleted post once the change commits and rebuild it on their
+ * next refresh. Engagement counts on other nodes catch up within max-age.
+ */
+@Component
+public class PublicTimelineSnapshot {
+
+    private static final Logger log = LoggerFactory.getLogger(PublicTimelineSnapshot.class);
+    private static final String FIRST_PAGE = "";
+    private static final String CHANNEL = "post_changes";
+
+    private record Snapshot(Map<String, byte[]> pages, Set<Long> postIds, long builtAt) {
+    }
+
+    private final PostService postService;
+    private final ObjectMapper objectMapper;
+    private final ClusterBroadcast clusterBroadcast;
+    private final int pageCount;
+    private final long maxAgeMs;
+
+    private final AtomicBoolean dirty = new AtomicBoolean();
+    private volatile Snapshot snapshot;
+
+    public PublicTimelineSnapshot(PostService postService, ObjectMapper objectMapper,
+            ClusterBroadcast clusterBroadcast,
+            @Value("${public-timeline.pages:3}") int pageCount,
+            @Value("${public-timeline.max-age-ms:60000}") long maxAgeMs) {
+        this.postService = postService;
+        this.objectMapper = objectMapper;
+        this.clusterBroadcast = clusterBroadcast;
+        this.pageCount = pageCount;
+        this.maxAgeMs = maxAgeMs;
+        // A missed hide or delete may be listed, so nothing is served until the next rebuild
+        clusterBroadcast.subscribe(CHANNEL, false, this::onRemoteChanges, () -> {
+            snapshot = null;
+            dirty.set(true);
+        });
+    }
+
+    /**
+     * Returns the serialized page for an anonymous request, or {@code null}
+     * when the page is not part of the snapshot and must be queried.
+     */
+    public byte[] page(String cursor, int limit) {
+        Snapshot current = snapshot;
+        if (current == null || limit != PostService.DEFAULT_PAGE_SIZE) {
+            return null;
+        }
+        return current.pages().get(cursor == null || cursor.isBlank() ? FIRST_PAGE : cursor);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void init() {
+        rebuild();
+    }
+
+    // Before commit, so other nodes hear of the change exactly when it commits
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void broadcastPostChanged(PostChangedEvent event) {
+        clusterBroadcast.publish(CHANNEL, event.postId() + ":" + event.change());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onPostChanged(PostChangedEvent event) {
+        apply(event.postId(), event.change(), true);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onEngagement(PostEngagementEvent event) {
+        Snapshot current = snapshot;
+        if (current != null && current.postIds().contains(event.postId())) {
+            dirty.set(true);
+        }
+    }
+
+    // Also picks up changes that publish no event, such as a renamed author or a new avatar
+    @Scheduled(fixedDelayString = "${public-timeline.refresh-interval-ms:1000}")
+    public void refreshIfChanged() {
+        Snapshot current = snapshot;
+        boolean expired = current == null || System.currentTimeMillis() - current.builtAt() > maxAgeMs;
+        if (dirty.getAndSet(false) || expired) {
+            rebuild();
+        }
+    }
+
+    private void onRemoteChanges(List<String> payloads) {
+        for (String payload : payloads) {
+            int separator = payload.indexOf(':');
+            apply(Long.parseLong(payload.substring(0, separator)),
+                    PostChangedEvent.Change.valueOf(payload.substring(separator + 1)), false);
+        }
+    }
+
+    private void apply(Long postId, PostChangedEvent.Change change, boolean local) {
+        Snapshot current = snapshot;
+        boolean listed = current != null && current.postIds().contains(postId);
+        switch (change) {
+            // Moderated or removed content must not stay public until the next refresh; other
+            // nodes leave the rebuild to their refresh rather than run it on the listener thread
+            case HIDDEN, DELETED -> {
+                if (listed) {
+                    snapshot = null;
+                    if (local) {
+                        rebuild();
+                    } else {
+                        dirty.set(true);
+                    }
+                }
+            }
+            case PUBLISHED, UNHIDDEN -> dirty.set(true);
+            case UPDATED -> {
+                if (listed) {
+                    dirty.set(true);
+                }
+            }
+        }
+    }
+
+    private synchronized void rebuild() {
+        dirty.set(false);
+        Map<String, byte[]> pages = new HashMap<>();
+        Set<Long> postIds = new HashSet<>();
+        String cursor = FIRST_PAGE;
+        try {
+            for (int i = 0; i < pageCount && cursor != null; i++) {
+                CursorPageDTO<PostSummaryDTO> page = postService.getAllPostsDTO(null, cursor,
+                        PostService.DEFAULT_PAGE_SIZE);
+                pages.put(cursor, objectMapper.writeValueAsBytes(page));
+                page.getItems().forEach(post -> postIds.add(post.getId()));
+                cursor = page.getNextCursor();
+            }
+        } catch (JsonProcessingException ex) {
+            log.warn("Could not serialize the public timeline snapshot", ex);
+            snapshot = null;
+            return;
+        }
+        snapshot = new Snapshot(Map.copyOf(pages), Set.copyOf(postIds), System.currentTimeMillis());
+    }
+}
@@ -0,0 +1,71 @@
+package com.zone01.backend.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.zone01.backend.entity.StreamTicket;
+import com.zone01.backend.entity.User;
+import com.zone01.backend.repository.StreamTicketRepository;
+
+/**
+ * Issues and redeems notification stream tickets. The stream URL ends up in
+ * access logs and browser history, so it carries a ticket that expires
+ * within seconds and works once, never the long-lived JWT. Tickets live in
+ * the database because the stream may be opened on another node than the
+ * one that issued them.
+ */
+@Service
+public class StreamTicketService {
+
+    private static final int TICKET_BYTES = 32;
+
+    private final StreamTicketRepository streamTicketRepository;
+    private final SecureRandom random = new SecureRandom();
+    private final long ttlMs;
+
+    public StreamTicketService(StreamTicketRepository streamTicketRepository,
+            @Value("${notifications.stream.ticket-ttl-ms:30000}") long ttlMs) {
+        this.streamTicketRepository = streamTicketRepository;
+        this.ttlMs = ttlMs;
+    }
+
+    public String issue(User user) {
+        byte[] bytes = new byte[TICKET_BYTES];
+        random.nextBytes(bytes);
+        String ticket = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        streamTicketRepository.save(new StreamTicket(hash(ticket), user.getId(),
+                LocalDateTime.now().plus(Duration.ofMillis(ttlMs))));
+        return ticket;
+    }
+
+    /** Consumes the ticket and returns the uuid of the user it was issued to. */
+    public Optional<String> redeem(String ticket) {
+        return streamTicketRepository.redeem(hash(ticket), LocalDateTime.now());
+    }
+
+    // Tickets that were never used
+    @Scheduled(fixedDelayString = "${notifications.stream.ticket-purge-interval-ms:600000}")
+    public void purgeExpired() {
+        streamTicketRepository.deleteExpired(LocalDateTime.now());
+    }
+
+    private static String hash(String ticket) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256")
+                    .digest(ticket.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 not available", ex);
+        }
+    }
+}
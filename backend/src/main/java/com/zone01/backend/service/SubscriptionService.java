@@ -4,6 +4,7 @@ import java.util.List;
 
 import org.springframework.stereotype.Service;
 
+import com.zone01.backend.entity.OutboxEventType;
 import com.zone01.backend.entity.Subscription;
 import com.zone01.backend.entity.User;
 import com.zone01.backend.exception.UserNotFoundException;
@@ -17,13 +18,15 @@ public class SubscriptionService {
 
     private final SubscriptionRepository subscriptionRepository;
     private final UserRepository userRepository;
-    private final NotificationService notificationService;
+    private final OutboxService outboxService;
+    private final TimelineService timelineService;
 
     public SubscriptionService(SubscriptionRepository subscriptionRepository, UserRepository userRepository,
-            NotificationService notificationService) {
+            OutboxService outboxService, TimelineService timelineService) {
         this.subscriptionRepository = subscriptionRepository;
         this.userRepository = userRepository;
-        this.notificationService = notificationService;
+        this.outboxService = outboxService;
+        this.timelineService = timelineService;
     }
 
     @Transactional
@@ -38,7 +41,8 @@ public class SubscriptionService {
         return subscriptionRepository.findBySubscriberAndTarget(subscriber, target)
                 .orElseGet(() -> {
                     Subscription subscription = subscriptionRepository.save(new Subscription(subscriber, target));
-                    notificationService.createFollowNotification(subscriber, target);
+                    timelineService.follow(subscriber.getId(), target.getId());
+                    outboxService.record(OutboxEventType.USER_FOLLOWED, subscriber.getId(), target.getId());
                     return subscription;
                 });
     }
@@ -49,7 +53,10 @@ public class SubscriptionService {
                 .orElseThrow(() -> new UserNotFoundException(targetUserId));
 
         subscriptionRepository.findBySubscriberAndTarget(subscriber, target)
-                .ifPresent(subscriptionRepository::delete);
+                .ifPresent(subscription -> {
+                    subscriptionRepository.delete(subscription);
+                    timelineService.unfollow(subscriber.getId(), target.getId());
+                });
     }
 
     public long countSubscribers(User user) {
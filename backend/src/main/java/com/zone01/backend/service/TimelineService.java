@@ -0,0 +1,147 @@
+package com.zone01.backend.service;
+
+import java.util.Comparator;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.zone01.backend.dto.PostSummaryDTO;
+import com.zone01.backend.event.PostChangedEvent;
+import com.zone01.backend.repository.PostRepository;
+import com.zone01.backend.repository.SubscriptionRepository;
+import com.zone01.backend.repository.TimelineRepository;
+import com.zone01.backend.repository.UserRepository;
+import com.zone01.backend.util.CursorUtil;
+import com.zone01.backend.util.FeedMerger;
+
+import jakarta.transaction.Transactional;
+
+/**
+ * Maintains per-reader home timelines so the follow feed is an indexed range
+ * read instead of an IN-list sort over every followed author.
+ *
+ * The feed is hybrid: posts from regular authors are pushed into timelines
+ * when published, while authors at or above {@code feed.celebrity-threshold}
+ * followers are never fanned out. Their posts are pulled per request, all
+ * followed celebrities in one query, and merged with the pushed page.
+ */
+@Service
+public class TimelineService {
+
+    static final Comparator<PostSummaryDTO> NEWEST_FIRST = Comparator.comparing(PostSummaryDTO::getCreatedAt)
+            .thenComparing(PostSummaryDTO::getId)
+            .reversed();
+
+    private final TimelineRepository timelineRepository;
+    private final SubscriptionRepository subscriptionRepository;
+    private final UserRepository userRepository;
+    private final PostRepository postRepository;
+    private final int backfillLimit;
+    private final long celebrityThreshold;
+
+    public TimelineService(TimelineRepository timelineRepository,
+            SubscriptionRepository subscriptionRepository,
+            UserRepository userRepository,
+            PostRepository postRepository,
+            @Value("${timeline.backfill-limit:200}") int backfillLimit,
+            @Value("${feed.celebrity-threshold:10000}") long celebrityThreshold) {
+        this.timelineRepository = timelineRepository;
+        this.subscriptionRepository = subscriptionRepository;
+        this.userRepository = userRepository;
+        this.postRepository = postRepository;
+        this.backfillLimit = backfillLimit;
+        this.celebrityThreshold = celebrityThreshold;
+    }
+
+    /**
+     * Returns up to {@code size} posts of the reader's feed older than the
+     * cursor, newest first.
+     */
+    public List<PostSummaryDTO> getPage(Long userId, String cursor, int size) {
+        CursorUtil.Position position = (cursor == null || cursor.isBlank()) ? null : CursorUtil.decode(cursor);
+        PageRequest window = PageRequest.ofSize(size);
+
+        List<PostSummaryDTO> pushed = position == null
+                ? timelineRepository.findTimelinePage(userId, window)
+                : timelineRepository.findTimelinePageBefore(userId, position.createdAt(), position.id(), window);
+        // No celebrity author can contribute more than a page, so each is capped at the page size
+        List<PostSummaryDTO> pulled = position == null
+                ? postRepository.findVisibleCelebrityPage(userId, size, window)
+                : postRepository.findVisibleCelebrityPageBefore(userId, position.createdAt(), position.id(), size,
+                        window);
+
+        if (pulled.isEmpty()) {
+            return pushed;
+        }
+        return FeedMerger.merge(List.of(pushed, pulled), NEWEST_FIRST, PostSummaryDTO::getId, size);
+    }
+
+    @Async
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onPostChanged(PostChangedEvent event) {
+        switch (event.change()) {
+            // Publishing fans out from the outbox, which retries until it succeeds
+            case UNHIDDEN -> fanOut(event.postId(), event.authorId(), event.createdAt());
+            case HIDDEN, DELETED -> timelineRepository.deleteByPostId(event.postId());
+            default -> {
+            }
+        }
+    }
+
+    public void fanOut(Long postId, Long authorId, java.time.LocalDateTime createdAt) {
+        if (!isCelebrity(authorId)) {
+            timelineRepository.fanOut(postId, authorId, createdAt);
+        }
+    }
+
+    public void follow(Long userId, Long authorId) {
+        if (!refreshCelebrity(authorId)) {
+            timelineRepository.backfill(userId, authorId, backfillLimit);
+        }
+    }
+
+    public void unfollow(Long userId, Long authorId) {
+        timelineRepository.prune(userId, authorId);
+        refreshCelebrity(authorId);
+    }
+
+    @Transactional
+    @EventListener(ApplicationReadyEvent.class)
+    public void seedIfEmpty() {
+        boolean empty = !timelineRepository.hasEntries();
+        List<Long> demoted = userRepository.refreshCelebrityFlags(celebrityThreshold);
+        // First start after timelines were introduced: materialize existing follows once
+        if (empty) {
+            timelineRepository.rebuildAll();
+            return;
+        }
+        // Authors demoted by a threshold change were pulled, so their followers' timelines lack their posts
+        for (Long authorId : demoted) {
+            timelineRepository.fanOutRecent(authorId, backfillLimit);
+        }
+    }
+
+    private boolean isCelebrity(Long authorId) {
+        return userRepository.findCelebrityById(authorId).orElse(false);
+    }
+
+    private boolean refreshCelebrity(Long authorId) {
+        boolean wasCelebrity = isCelebrity(authorId);
+        boolean celebrity = subscriptionRepository.countByTargetId(authorId) >= celebrityThreshold;
+        if (celebrity != wasCelebrity) {
+            userRepository.updateCelebrity(authorId, celebrity);
+            if (!celebrity) {
+                // Pushed timelines never saw this author's recent posts while they were pulled
+                timelineRepository.fanOutRecent(authorId, backfillLimit);
+            }
+        }
+        return celebrity;
+    }
+}
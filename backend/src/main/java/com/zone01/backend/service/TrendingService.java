@@ -0,0 +1,321 @@
+package com.zone01.backend.service;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.zone01.backend.dto.PostMediaDTO;
+import com.zone01.backend.dto.PostSummaryDTO;
+import com.zone01.backend.event.PostChangedEvent;
+import com.zone01.backend.event.PostEngagementEvent;
+import com.zone01.backend.repository.PostMediaRepository;
+import com.zone01.backend.repository.PostRepository;
+
+/**
+ * Ranks visible posts by exponentially decayed engagement for the trending
+ * tab. Each like, comment or publish adds {@code weight * 2^(t / halfLife)}
+ * to its post's score. Scores are kept as logarithms so they never overflow
+ * and never have to be decayed in place: decay scales every post alike, so
+ * ordering by the time-weighted sum is ordering by the decayed score. Only
+ * the best {@code trending.max-tracked} posts are held, and readers get a
+ * prebuilt page that is refreshed when its membership or contents change.
+ * A removed like or comment subtracts its contribution at the time it was
+ * made. Scores are rebuilt from the database periodically, since events only
+ * arrive from this node's own commits.
+ */
+@Service
+public class TrendingService {
+
+    private static final Logger log = LoggerFactory.getLogger(TrendingService.class);
+    private static final double PUBLISH_WEIGHT = 1.0;
+    private static final double LIKE_WEIGHT = 1.0;
+    private static final double COMMENT_WEIGHT = 3.0;
+
+    // Log of the time-weighted engagement sum per post over the rebuild window, relative to the origin.
+    // The exponents grow with the time since the origin, so each post's largest is taken out before exp
+    // and added back after ln; what exp sees is never above zero however long the node has been up.
+    private static final String SCORE_SELECT = "SELECT s.post_id, max(s.x) + ln(sum(s.weight * exp(s.x - s.top))) AS score "
+            + "FROM (SELECT a.post_id, a.weight, a.x, max(a.x) OVER (PARTITION BY a.post_id) AS top "
+            + "FROM (SELECT e.post_id, e.weight, "
+            + "CAST(? AS double precision) * extract(epoch FROM e.at - CAST(? AS timestamp)) AS x "
+            + "FROM (SELECT p.id AS post_id, CAST(? AS double precision) AS weight, p.created_at AS at "
+            + "FROM posts p WHERE p.created_at > ? "
+            + "UNION ALL SELECT l.post_id, ?, l.created_at FROM likes l WHERE l.created_at > ? "
+            + "UNION ALL SELECT c.post_id, ?, c.created_at FROM comments c WHERE c.created_at > ?) e) a) s "
+            + "JOIN posts p ON p.id = s.post_id WHERE p.hidden = false ";
+
+    private record Entry(long postId, double score) {
+    }
+
+    private static final Comparator<Entry> LOWEST_FIRST = Comparator.comparingDouble(Entry::score)
+            .thenComparingLong(Entry::postId);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PostRepository postRepository;
+    private final PostMediaRepository postMediaRepository;
+    private final LikeCounterBuffer likeCounterBuffer;
+    private final double decayPerSecond;
+    private final long windowHours;
+    private final int pageSize;
+    private final int maxTracked;
+    private final LocalDateTime origin = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+
+    private final Map<Long, Entry> entries = new HashMap<>();
+    private final TreeSet<Entry> ranking = new TreeSet<>(LOWEST_FIRST);
+    private final AtomicBoolean dirty = new AtomicBoolean();
+    private final Set<Long> touchedDuringRescore = ConcurrentHashMap.newKeySet();
+    private final Object refreshLock = new Object();
+    private volatile Set<Long> topIds = Set.of();
+    private volatile List<PostSummaryDTO> top = List.of();
+
+    public TrendingService(JdbcTemplate jdbcTemplate,
+            PostRepository postRepository,
+            PostMediaRepository postMediaRepository,
+            LikeCounterBuffer likeCounterBuffer,
+            @Value("${trending.half-life-hours:6}") double halfLifeHours,
+            @Value("${trending.window-hours:72}") long windowHours,
+            @Value("${trending.size:50}") int pageSize,
+            @Value("${trending.max-tracked:10000}") int maxTracked) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.postRepository = postRepository;
+        this.postMediaRepository = postMediaRepository;
+        this.likeCounterBuffer = likeCounterBuffer;
+        this.decayPerSecond = Math.log(2) / (halfLifeHours * 3600);
+        this.windowHours = windowHours;
+        this.pageSize = pageSize;
+        this.maxTracked = Math.max(maxTracked, pageSize);
+    }
+
+    /** Best posts first; the list is shared between callers and must not be modified. */
+    public List<PostSummaryDTO> getTop() {
+        return top;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onEngagement(PostEngagementEvent event) {
+        double weight = event.kind() == PostEngagementEvent.Kind.COMMENT ? COMMENT_WEIGHT : LIKE_WEIGHT;
+        add(event.postId(), event.delta() * weight, event.occurredAt());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onPostChanged(PostChangedEvent event) {
+        switch (event.change()) {
+            case PUBLISHED -> add(event.postId(), PUBLISH_WEIGHT, event.createdAt());
+            case UNHIDDEN -> rescore(event.postId());
+            case HIDDEN, DELETED -> remove(event.postId());
+            case UPDATED -> {
+                if (topIds.contains(event.postId())) {
+                    dirty.set(true);
+                }
+            }
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        rescoreAll();
+        int tracked;
+        synchronized (this) {
+            tracked = entries.size();
+        }
+        log.info("Trending rebuilt from the last {} hours: {} posts tracked", windowHours, tracked);
+    }
+
+    /**
+     * Only engagement committed on this node arrives as events, so scores
+     * are recomputed from the database now and then to take in what other
+     * nodes saw.
+     */
+    @Scheduled(initialDelayString = "${trending.rescore-interval-ms:300000}",
+            fixedDelayString = "${trending.rescore-interval-ms:300000}")
+    public void rescoreAll() {
+        touchedDuringRescore.clear();
+        List<Entry> scored = score(null, maxTracked);
+        Set<Long> touched;
+        synchronized (this) {
+            entries.clear();
+            ranking.clear();
+            for (Entry entry : scored) {
+                entries.put(entry.postId(), entry);
+                ranking.add(entry);
+            }
+            touched = Set.copyOf(touchedDuringRescore);
+        }
+        // Events applied while the scan ran were overwritten and may not be in its snapshot either
+        touched.forEach(this::rescore);
+        refresh();
+    }
+
+    @Scheduled(fixedDelayString = "${trending.refresh-interval-ms:1000}")
+    public void refreshIfChanged() {
+        if (dirty.getAndSet(false)) {
+            refresh();
+        }
+    }
+
+    private void refresh() {
+        synchronized (refreshLock) {
+            publishTop();
+        }
+    }
+
+    private void publishTop() {
+        List<Long> ids = new ArrayList<>(pageSize);
+        synchronized (this) {
+            Iterator<Entry> best = ranking.descendingIterator();
+            while (best.hasNext() && ids.size() < pageSize) {
+                ids.add(best.next().postId());
+            }
+        }
+        if (ids.isEmpty()) {
+            topIds = Set.of();
+            top = List.of();
+            return;
+        }
+        Map<Long, PostSummaryDTO> byId = postRepository.findSummariesByIdIn(ids).stream()
+                .collect(Collectors.toMap(PostSummaryDTO::getId, post -> post));
+        Map<Long, List<PostMediaDTO>> mediaByPost = postMediaRepository.findDtosByPostIdIn(ids).stream()
+                .collect(Collectors.groupingBy(PostMediaDTO::getPostId));
+        List<PostSummaryDTO> posts = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            PostSummaryDTO post = byId.get(id);
+            if (post == null || post.isHidden()) {
+                continue;
+            }
+            post.setMedia(mediaByPost.getOrDefault(id, new ArrayList<>()));
+            post.withCounts(post.getLikesCount() + likeCounterBuffer.pending(id), post.getCommentsCount());
+            posts.add(post);
+        }
+        topIds = Set.copyOf(ids);
+        top = List.copyOf(posts);
+    }
+
+    private void add(Long postId, double weight, LocalDateTime at) {
+        touchedDuringRescore.add(postId);
+        double contribution = Math.log(Math.abs(weight))
+                + decayPerSecond * ChronoUnit.MILLIS.between(origin, at) / 1000.0;
+        synchronized (this) {
+            Entry current = entries.get(postId);
+            double score;
+            if (weight > 0) {
+                score = current == null ? contribution : logAdd(current.score(), contribution);
+            } else if (current != null) {
+                score = logSubtract(current.score(), contribution);
+            } else {
+                return;
+            }
+            if (current != null) {
+                ranking.remove(current);
+            }
+            if (score == Double.NEGATIVE_INFINITY) {
+                entries.remove(postId);
+            } else {
+                Entry entry = new Entry(postId, score);
+                entries.put(postId, entry);
+                ranking.add(entry);
+                // Evicted posts restart from their next engagement, which is what a recent post needs anyway
+                while (ranking.size() > maxTracked) {
+                    entries.remove(ranking.pollFirst().postId());
+                }
+            }
+            if (topIds.contains(postId) || ranksOnPage(postId)) {
+                dirty.set(true);
+            }
+        }
+    }
+
+    private void remove(Long postId) {
+        touchedDuringRescore.add(postId);
+        synchronized (this) {
+            Entry current = entries.remove(postId);
+            if (current != null) {
+                ranking.remove(current);
+            }
+        }
+        if (topIds.contains(postId)) {
+            dirty.set(true);
+        }
+    }
+
+    private void rescore(Long postId) {
+        List<Entry> scored = score(postId, 1);
+        synchronized (this) {
+            Entry current = entries.remove(postId);
+            if (current != null) {
+                ranking.remove(current);
+            }
+            for (Entry entry : scored) {
+                entries.put(entry.postId(), entry);
+                ranking.add(entry);
+                while (ranking.size() > maxTracked) {
+                    entries.remove(ranking.pollFirst().postId());
+                }
+            }
+            if (ranksOnPage(postId)) {
+                dirty.set(true);
+            }
+        }
+    }
+
+    private List<Entry> score(Long postId, int limit) {
+        Timestamp since = Timestamp.valueOf(LocalDateTime.now().minusHours(windowHours));
+        List<Object> args = new ArrayList<>(List.of(decayPerSecond, Timestamp.valueOf(origin),
+                PUBLISH_WEIGHT, since, LIKE_WEIGHT, since, COMMENT_WEIGHT, since));
+        String sql = SCORE_SELECT;
+        if (postId != null) {
+            sql += "AND s.post_id = ? ";
+            args.add(postId);
+        }
+        args.add(limit);
+        return jdbcTemplate.query(sql + "GROUP BY s.post_id ORDER BY score DESC LIMIT ?",
+                (rs, rowNum) -> new Entry(rs.getLong("post_id"), rs.getDouble("score")),
+                args.toArray());
+    }
+
+    // Caller holds the monitor
+    private boolean ranksOnPage(Long postId) {
+        Iterator<Entry> best = ranking.descendingIterator();
+        for (int rank = 0; rank < pageSize && best.hasNext(); rank++) {
+            if (best.next().postId() == postId) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static double logAdd(double a, double b) {
+        double max = Math.max(a, b);
+        return max + Math.log1p(Math.exp(-Math.abs(a - b)));
+    }
+
+    // A removal is weighted at the time of what it removes, so it can only reach the whole score through
+    // rounding, or when the addition was evicted or predates the window; the post then drops out
+    private static double logSubtract(double a, double b) {
+        if (b >= a) {
+            return Double.NEGATIVE_INFINITY;
+        }
+        return a + Math.log1p(-Math.exp(b - a));
+    }
+}
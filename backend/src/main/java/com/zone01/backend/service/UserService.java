@@ -15,6 +15,8 @@ import com.zone01.backend.exception.InvalidCredentialsException;
 import com.zone01.backend.exception.UserNotFoundException;
 import com.zone01.backend.exception.UsernameAlreadyExistsException;
 import com.zone01.backend.exception.WeakPasswordException;
+import com.zone01.backend.repository.PostMediaRepository;
+import com.zone01.backend.repository.TimelineRepository;
 import com.zone01.backend.repository.UserRepository;
 import com.zone01.backend.util.ValidationUtil;
 
@@ -25,10 +27,18 @@ public class UserService {
 
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final PostMediaRepository postMediaRepository;
+    private final FileStorageService fileStorageService;
+    private final TimelineRepository timelineRepository;
 
-    public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder) {
+    public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder,
+            PostMediaRepository postMediaRepository, FileStorageService fileStorageService,
+            TimelineRepository timelineRepository) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
+        this.postMediaRepository = postMediaRepository;
+        this.fileStorageService = fileStorageService;
+        this.timelineRepository = timelineRepository;
     }
 
     @Transactional
@@ -118,7 +128,16 @@ public class UserService {
 
     @Transactional
     public void deleteUser(Long userId) {
-        userRepository.deleteById(userId);
+        userRepository.findById(userId).ifPresent(user -> {
+            // Collected first: the delete cascades to the user's posts and their media rows
+            List<String> mediaUrls = new java.util.ArrayList<>(postMediaRepository.findUrlsByAuthorId(userId));
+            mediaUrls.add(user.getAvatarUrl());
+            userRepository.releaseUnreadNotificationsForUser(userId);
+            // Timeline rows hold plain ids, so nothing cascades to them
+            timelineRepository.deleteByUserOrAuthor(userId);
+            userRepository.delete(user);
+            fileStorageService.discard(mediaUrls);
+        });
     }
 
     public boolean existsByUsername(String username) {
@@ -161,7 +180,11 @@ public class UserService {
         }
 
         if (avatarUrl != null) {
+            String previousAvatarUrl = user.getAvatarUrl();
             user.setAvatarUrl(avatarUrl);
+            if (previousAvatarUrl != null && !previousAvatarUrl.equals(avatarUrl)) {
+                fileStorageService.discard(List.of(previousAvatarUrl));
+            }
         }
 
         user.setUpdatedAt(LocalDateTime.now());
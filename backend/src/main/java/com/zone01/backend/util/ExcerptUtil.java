@@ -0,0 +1,36 @@
+package com.zone01.backend.util;
+
+/**
+ * Builds the short plain-text excerpt stored alongside a post so list views
+ * never need to read the full content column.
+ */
+public class ExcerptUtil {
+
+    public static final int MAX_LENGTH = 280;
+
+    private static final String ELLIPSIS = "…";
+
+    public static String excerpt(String content) {
+        String text = normalize(content);
+        if (text.length() <= MAX_LENGTH) {
+            return text;
+        }
+        int cut = text.lastIndexOf(' ', MAX_LENGTH);
+        // Prefer a word boundary unless that would throw away most of the excerpt
+        if (cut < MAX_LENGTH / 2) {
+            cut = MAX_LENGTH;
+        }
+        if (Character.isHighSurrogate(text.charAt(cut - 1))) {
+            cut--;
+        }
+        return text.substring(0, cut).stripTrailing() + ELLIPSIS;
+    }
+
+    public static boolean isTruncated(String content) {
+        return normalize(content).length() > MAX_LENGTH;
+    }
+
+    private static String normalize(String content) {
+        return content == null ? "" : content.strip().replaceAll("\\s+", " ");
+    }
+}
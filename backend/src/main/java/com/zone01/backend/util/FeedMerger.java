@@ -0,0 +1,47 @@
+package com.zone01.backend.util;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * K-way merge of feed sources that are each already sorted in the same
+ * order. Only the heads of the sources are compared, so merging k sources
+ * into a page of n items costs O(n log k) regardless of source length.
+ */
+public class FeedMerger {
+
+    private record Head<T>(T item, int source, int position) {
+    }
+
+    public static <T> List<T> merge(List<List<T>> sources, Comparator<? super T> order,
+            Function<? super T, ?> identity, int limit) {
+        PriorityQueue<Head<T>> heads = new PriorityQueue<>(Math.max(1, sources.size()),
+                (a, b) -> order.compare(a.item(), b.item()));
+        for (int i = 0; i < sources.size(); i++) {
+            List<T> source = sources.get(i);
+            if (!source.isEmpty()) {
+                heads.add(new Head<>(source.get(0), i, 0));
+            }
+        }
+
+        List<T> merged = new ArrayList<>(limit);
+        Set<Object> seen = new HashSet<>();
+        while (!heads.isEmpty() && merged.size() < limit) {
+            Head<T> head = heads.poll();
+            if (seen.add(identity.apply(head.item()))) {
+                merged.add(head.item());
+            }
+            List<T> source = sources.get(head.source());
+            int next = head.position() + 1;
+            if (next < source.size()) {
+                heads.add(new Head<>(source.get(next), head.source(), next));
+            }
+        }
+        return merged;
+    }
+}
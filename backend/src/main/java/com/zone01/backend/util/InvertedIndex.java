@@ -0,0 +1,669 @@
+package com.zone01.backend.util;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.zip.CRC32;
+
+/**
+ * In-memory BM25 index over post titles, contents and author usernames.
+ * Postings are primitive arrays of document ordinals and weighted term
+ * frequencies in ordinal order. Replacing or removing a post tombstones its
+ * ordinal; tombstones are compacted away once they outnumber live documents.
+ * Searches share a read lock, updates take the write lock.
+ */
+public final class InvertedIndex {
+
+    public record Hit(long postId, float score) {
+    }
+
+    private static final int TITLE_WEIGHT = 3;
+    private static final int USERNAME_WEIGHT = 2;
+    private static final int CONTENT_WEIGHT = 1;
+    private static final float K1 = 1.2f;
+    private static final float B = 0.75f;
+    private static final int MAX_TERM_LENGTH = 40;
+    private static final int MIN_PREFIX_LENGTH = 2;
+    private static final int MAX_PREFIX_EXPANSIONS = 64;
+    private static final int MIN_DEAD_FOR_COMPACTION = 1024;
+
+    private static final int SNAPSHOT_MAGIC = 0x50534958; // "PSIX"
+    private static final int SNAPSHOT_VERSION = 1;
+
+    private static final Set<String> STOP_WORDS = Set.of(
+            "a", "an", "and", "are", "as", "at", "be", "but", "by", "for", "if", "in", "into", "is", "it",
+            "no", "not", "of", "on", "or", "such", "that", "the", "their", "then", "there", "these", "they",
+            "this", "to", "was", "will", "with");
+
+    // Best hits first; equal scores fall back to the newer post
+    private static final Comparator<Hit> RANKING = Comparator.comparingDouble(Hit::score)
+            .thenComparingLong(Hit::postId)
+            .reversed();
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final TreeMap<String, Postings> terms = new TreeMap<>();
+    private final Map<Long, Integer> ordinals = new HashMap<>();
+    // Per-ordinal document table; a post id of 0 marks a tombstone
+    private long[] postIds = new long[1024];
+    private long[] stamps = new long[1024];
+    private int[] lengths = new int[1024];
+    private int nextOrdinal;
+    private int liveDocs;
+    private long totalLength;
+    private long modifications;
+
+    /**
+     * Indexes or replaces a post. The stamp identifies the indexed revision;
+     * a put with the stamp already held is a no-op.
+     *
+     * @return whether the index changed
+     */
+    public boolean put(long postId, long stamp, String title, String content, String username) {
+        if (postId <= 0) {
+            throw new IllegalArgumentException("Post id must be positive");
+        }
+        Map<String, int[]> frequencies = new HashMap<>();
+        int length = count(frequencies, title, TITLE_WEIGHT) + count(frequencies, content, CONTENT_WEIGHT);
+        if (username != null && !username.isBlank()) {
+            frequencies.computeIfAbsent(username.toLowerCase(), t -> new int[1])[0] += USERNAME_WEIGHT;
+            length += USERNAME_WEIGHT;
+        }
+
+        lock.writeLock().lock();
+        try {
+            Integer previous = ordinals.get(postId);
+            if (previous != null) {
+                if (stamps[previous] == stamp) {
+                    return false;
+                }
+                tombstone(previous);
+            }
+            int ordinal = nextOrdinal++;
+            ensureDocCapacity(nextOrdinal);
+            postIds[ordinal] = postId;
+            stamps[ordinal] = stamp;
+            lengths[ordinal] = length;
+            for (Map.Entry<String, int[]> entry : frequencies.entrySet()) {
+                terms.computeIfAbsent(entry.getKey(), t -> new Postings()).add(ordinal, entry.getValue()[0]);
+            }
+            ordinals.put(postId, ordinal);
+            liveDocs++;
+            totalLength += length;
+            modifications++;
+            compactIfSparse();
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** @return whether the post was indexed */
+    public boolean remove(long postId) {
+        lock.writeLock().lock();
+        try {
+            Integer ordinal = ordinals.remove(postId);
+            if (ordinal == null) {
+                return false;
+            }
+            tombstone(ordinal);
+            modifications++;
+            compactIfSparse();
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns up to {@code limit} posts matching every query term, best first.
+     * A trailing {@code *} makes a term a prefix, a leading {@code -}
+     * excludes it. When {@code afterScore} is set only hits ranked strictly
+     * below ({@code afterScore}, {@code afterId}) are returned.
+     */
+    public List<Hit> search(String query, int limit, Float afterScore, long afterId) {
+        List<Clause> include = new ArrayList<>();
+        List<String> exclude = new ArrayList<>();
+        parse(query, include, exclude);
+        if (include.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            if (liveDocs == 0) {
+                return List.of();
+            }
+            List<List<Postings>> clauses = new ArrayList<>(include.size());
+            for (Clause clause : include) {
+                List<Postings> postings = resolve(clause);
+                if (postings.isEmpty()) {
+                    return List.of();
+                }
+                clauses.add(postings);
+            }
+            // Start from the rarest clause so later clauses only probe a small candidate set
+            clauses.sort(Comparator.comparingLong(InvertedIndex::totalSize));
+
+            float avgLength = (float) totalLength / liveDocs;
+            Candidates candidates = firstClause(clauses.get(0), avgLength);
+            for (int c = 1; c < clauses.size() && candidates.size > 0; c++) {
+                candidates = intersect(candidates, clauses.get(c), avgLength);
+            }
+            for (String term : exclude) {
+                Postings postings = terms.get(term);
+                if (postings != null && candidates.size > 0) {
+                    candidates = subtract(candidates, postings);
+                }
+            }
+            return top(candidates, limit, afterScore, afterId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** @return the stamp of the indexed revision of a post, or {@code null} */
+    public Long stamp(long postId) {
+        lock.readLock().lock();
+        try {
+            Integer ordinal = ordinals.get(postId);
+            return ordinal == null ? null : stamps[ordinal];
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long[] postIds() {
+        lock.readLock().lock();
+        try {
+            return ordinals.keySet().stream().mapToLong(Long::longValue).toArray();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return liveDocs;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int termCount() {
+        lock.readLock().lock();
+        try {
+            return terms.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Monotonic change counter, used to skip snapshots of an unchanged index. */
+    public long modifications() {
+        lock.readLock().lock();
+        try {
+            return modifications;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Writes the live documents and postings to {@code target} through a
+     * memory-mapped temporary file that is atomically moved into place.
+     */
+    public void writeTo(Path target) throws IOException {
+        Path parent = target.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path temp = Files.createTempFile(parent, target.getFileName().toString(), ".tmp");
+        try {
+            lock.readLock().lock();
+            try {
+                writeSnapshot(temp);
+            } finally {
+                lock.readLock().unlock();
+            }
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /** Loads a snapshot written by {@link #writeTo(Path)}. */
+    public static InvertedIndex readFrom(Path source) throws IOException {
+        try (FileChannel channel = FileChannel.open(source, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < 20 || size > Integer.MAX_VALUE) {
+                throw new IOException("Unexpected index snapshot size " + size);
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            CRC32 crc = new CRC32();
+            crc.update(buffer.slice(0, (int) size - Long.BYTES));
+            if (crc.getValue() != buffer.getLong((int) size - Long.BYTES)) {
+                throw new IOException("Index snapshot checksum mismatch");
+            }
+            if (buffer.getInt() != SNAPSHOT_MAGIC || buffer.getInt() != SNAPSHOT_VERSION) {
+                throw new IOException("Unsupported index snapshot format");
+            }
+
+            InvertedIndex index = new InvertedIndex();
+            int docs = buffer.getInt();
+            index.ensureDocCapacity(docs);
+            for (int ordinal = 0; ordinal < docs; ordinal++) {
+                long postId = buffer.getLong();
+                index.postIds[ordinal] = postId;
+                index.stamps[ordinal] = buffer.getLong();
+                index.lengths[ordinal] = buffer.getInt();
+                index.totalLength += index.lengths[ordinal];
+                index.ordinals.put(postId, ordinal);
+            }
+            index.nextOrdinal = docs;
+            index.liveDocs = docs;
+
+            int termCount = buffer.getInt();
+            for (int t = 0; t < termCount; t++) {
+                byte[] bytes = new byte[buffer.getInt()];
+                buffer.get(bytes);
+                int count = buffer.getInt();
+                Postings postings = new Postings(count);
+                for (int p = 0; p < count; p++) {
+                    int ordinal = buffer.getInt();
+                    if (ordinal < 0 || ordinal >= docs) {
+                        throw new IOException("Corrupt index snapshot: posting for unknown document");
+                    }
+                    postings.add(ordinal, buffer.getInt());
+                }
+                index.terms.put(new String(bytes, StandardCharsets.UTF_8), postings);
+            }
+            return index;
+        } catch (BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException
+                | NegativeArraySizeException ex) {
+            throw new IOException("Corrupt index snapshot", ex);
+        }
+    }
+
+    private void writeSnapshot(Path file) throws IOException {
+        // Ordinals are renumbered densely so the snapshot carries no tombstones
+        int[] remap = new int[nextOrdinal];
+        int docs = 0;
+        for (int ordinal = 0; ordinal < nextOrdinal; ordinal++) {
+            remap[ordinal] = postIds[ordinal] == 0 ? -1 : docs++;
+        }
+        List<byte[]> termBytes = new ArrayList<>(terms.size());
+        List<Postings> termPostings = new ArrayList<>(terms.size());
+        int[] liveCounts = new int[terms.size()];
+        long size = 4L * Integer.BYTES + (long) docs * (2 * Long.BYTES + Integer.BYTES) + Long.BYTES;
+        for (Map.Entry<String, Postings> entry : terms.entrySet()) {
+            Postings postings = entry.getValue();
+            int live = 0;
+            for (int p = 0; p < postings.size; p++) {
+                if (remap[postings.docs[p]] >= 0) {
+                    live++;
+                }
+            }
+            if (live == 0) {
+                continue;
+            }
+            byte[] bytes = entry.getKey().getBytes(StandardCharsets.UTF_8);
+            liveCounts[termBytes.size()] = live;
+            termBytes.add(bytes);
+            termPostings.add(postings);
+            size += 2L * Integer.BYTES + bytes.length + 2L * Integer.BYTES * live;
+        }
+        if (size > Integer.MAX_VALUE) {
+            throw new IOException("Index snapshot too large to map: " + size + " bytes");
+        }
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            buffer.putInt(SNAPSHOT_MAGIC).putInt(SNAPSHOT_VERSION).putInt(docs);
+            for (int ordinal = 0; ordinal < nextOrdinal; ordinal++) {
+                if (remap[ordinal] >= 0) {
+                    buffer.putLong(postIds[ordinal]).putLong(stamps[ordinal]).putInt(lengths[ordinal]);
+                }
+            }
+            buffer.putInt(termBytes.size());
+            for (int t = 0; t < termBytes.size(); t++) {
+                Postings postings = termPostings.get(t);
+                buffer.putInt(termBytes.get(t).length).put(termBytes.get(t)).putInt(liveCounts[t]);
+                for (int p = 0; p < postings.size; p++) {
+                    int ordinal = remap[postings.docs[p]];
+                    if (ordinal >= 0) {
+                        buffer.putInt(ordinal).putInt(postings.freqs[p]);
+                    }
+                }
+            }
+            CRC32 crc = new CRC32();
+            crc.update(buffer.slice(0, (int) size - Long.BYTES));
+            buffer.putLong(crc.getValue());
+            buffer.force();
+        }
+    }
+
+    private void tombstone(int ordinal) {
+        postIds[ordinal] = 0;
+        totalLength -= lengths[ordinal];
+        liveDocs--;
+    }
+
+    private void compactIfSparse() {
+        int dead = nextOrdinal - liveDocs;
+        if (dead < MIN_DEAD_FOR_COMPACTION || dead < liveDocs) {
+            return;
+        }
+        int[] remap = new int[nextOrdinal];
+        int next = 0;
+        for (int ordinal = 0; ordinal < nextOrdinal; ordinal++) {
+            if (postIds[ordinal] == 0) {
+                remap[ordinal] = -1;
+                continue;
+            }
+            remap[ordinal] = next;
+            postIds[next] = postIds[ordinal];
+            stamps[next] = stamps[ordinal];
+            lengths[next] = lengths[ordinal];
+            ordinals.put(postIds[next], next);
+            next++;
+        }
+        Arrays.fill(postIds, next, nextOrdinal, 0L);
+        nextOrdinal = next;
+
+        Iterator<Postings> iterator = terms.values().iterator();
+        while (iterator.hasNext()) {
+            Postings postings = iterator.next();
+            int kept = 0;
+            for (int p = 0; p < postings.size; p++) {
+                int ordinal = remap[postings.docs[p]];
+                if (ordinal >= 0) {
+                    postings.docs[kept] = ordinal;
+                    postings.freqs[kept] = postings.freqs[p];
+                    kept++;
+                }
+            }
+            postings.size = kept;
+            if (kept == 0) {
+                iterator.remove();
+            }
+        }
+    }
+
+    private void ensureDocCapacity(int capacity) {
+        if (capacity > postIds.length) {
+            int grown = Math.max(capacity, postIds.length + (postIds.length >> 1));
+            postIds = Arrays.copyOf(postIds, grown);
+            stamps = Arrays.copyOf(stamps, grown);
+            lengths = Arrays.copyOf(lengths, grown);
+        }
+    }
+
+    private List<Postings> resolve(Clause clause) {
+        if (!clause.prefix()) {
+            Postings postings = terms.get(clause.term());
+            return postings == null ? List.of() : List.of(postings);
+        }
+        NavigableMap<String, Postings> matches = terms.subMap(clause.term(), true,
+                clause.term() + Character.MAX_VALUE, false);
+        List<Postings> postings = new ArrayList<>(Math.min(matches.size(), MAX_PREFIX_EXPANSIONS));
+        for (Postings candidate : matches.values()) {
+            if (postings.size() == MAX_PREFIX_EXPANSIONS) {
+                break;
+            }
+            postings.add(candidate);
+        }
+        return postings;
+    }
+
+    private Candidates firstClause(List<Postings> clause, float avgLength) {
+        if (clause.size() == 1) {
+            Postings postings = clause.get(0);
+            float idf = idf(postings);
+            Candidates candidates = new Candidates(postings.size);
+            for (int p = 0; p < postings.size; p++) {
+                int ordinal = postings.docs[p];
+                if (postIds[ordinal] != 0) {
+                    candidates.add(ordinal, bm25(idf, postings.freqs[p], lengths[ordinal], avgLength));
+                }
+            }
+            return candidates;
+        }
+        // Union of prefix expansions: pack (ordinal, score) so one primitive sort groups by document
+        long[] packed = new long[(int) totalSize(clause)];
+        int count = 0;
+        for (Postings postings : clause) {
+            float idf = idf(postings);
+            for (int p = 0; p < postings.size; p++) {
+                int ordinal = postings.docs[p];
+                if (postIds[ordinal] != 0) {
+                    float score = bm25(idf, postings.freqs[p], lengths[ordinal], avgLength);
+                    packed[count++] = ((long) ordinal << 32) | (Float.floatToRawIntBits(score) & 0xFFFFFFFFL);
+                }
+            }
+        }
+        Arrays.sort(packed, 0, count);
+        Candidates candidates = new Candidates(count);
+        for (int i = 0; i < count; i++) {
+            int ordinal = (int) (packed[i] >>> 32);
+            float score = Float.intBitsToFloat((int) packed[i]);
+            if (candidates.size > 0 && candidates.docs[candidates.size - 1] == ordinal) {
+                candidates.scores[candidates.size - 1] += score;
+            } else {
+                candidates.add(ordinal, score);
+            }
+        }
+        return candidates;
+    }
+
+    private Candidates intersect(Candidates candidates, List<Postings> clause, float avgLength) {
+        boolean[] matched = new boolean[candidates.size];
+        for (Postings postings : clause) {
+            float idf = idf(postings);
+            int from = 0;
+            for (int i = 0; i < candidates.size && from < postings.size; i++) {
+                int found = gallop(postings, candidates.docs[i], from);
+                if (found < 0) {
+                    from = -found - 1;
+                    continue;
+                }
+                from = found + 1;
+                matched[i] = true;
+                candidates.scores[i] += bm25(idf, postings.freqs[found], lengths[candidates.docs[i]], avgLength);
+            }
+        }
+        Candidates kept = new Candidates(candidates.size);
+        for (int i = 0; i < candidates.size; i++) {
+            if (matched[i]) {
+                kept.add(candidates.docs[i], candidates.scores[i]);
+            }
+        }
+        return kept;
+    }
+
+    private Candidates subtract(Candidates candidates, Postings postings) {
+        Candidates kept = new Candidates(candidates.size);
+        int from = 0;
+        for (int i = 0; i < candidates.size; i++) {
+            int found = from < postings.size ? gallop(postings, candidates.docs[i], from) : -postings.size - 1;
+            if (found >= 0) {
+                from = found + 1;
+                continue;
+            }
+            from = -found - 1;
+            kept.add(candidates.docs[i], candidates.scores[i]);
+        }
+        return kept;
+    }
+
+    private List<Hit> top(Candidates candidates, int limit, Float afterScore, long afterId) {
+        PriorityQueue<Hit> best = new PriorityQueue<>(limit + 1, RANKING.reversed());
+        for (int i = 0; i < candidates.size; i++) {
+            float score = candidates.scores[i];
+            long postId = postIds[candidates.docs[i]];
+            if (afterScore != null && (score > afterScore || (score == afterScore && postId >= afterId))) {
+                continue;
+            }
+            if (best.size() == limit) {
+                Hit worst = best.peek();
+                if (score < worst.score() || (score == worst.score() && postId < worst.postId())) {
+                    continue;
+                }
+                best.poll();
+            }
+            best.add(new Hit(postId, score));
+        }
+        List<Hit> hits = new ArrayList<>(best);
+        hits.sort(RANKING);
+        return hits;
+    }
+
+    private float idf(Postings postings) {
+        // Tombstoned postings still count towards df until the next compaction
+        int df = Math.min(postings.size, liveDocs);
+        return (float) Math.log(1 + (liveDocs - df + 0.5) / (df + 0.5));
+    }
+
+    private static float bm25(float idf, int frequency, int length, float avgLength) {
+        return idf * frequency * (K1 + 1) / (frequency + K1 * (1 - B + B * length / avgLength));
+    }
+
+    /**
+     * Exponential then binary search for {@code ordinal} in postings at or
+     * after {@code from}; returns the index or {@code -(insertion point) - 1}.
+     */
+    private static int gallop(Postings postings, int ordinal, int from) {
+        int bound = 1;
+        int high = from;
+        while (high < postings.size && postings.docs[high] < ordinal) {
+            from = high + 1;
+            high = from + bound;
+            bound <<= 1;
+        }
+        return Arrays.binarySearch(postings.docs, from, Math.min(high + 1, postings.size), ordinal);
+    }
+
+    private static long totalSize(List<Postings> clause) {
+        long size = 0;
+        for (Postings postings : clause) {
+            size += postings.size;
+        }
+        return size;
+    }
+
+    private static int count(Map<String, int[]> frequencies, String text, int weight) {
+        int length = 0;
+        for (String term : tokenize(text, true)) {
+            frequencies.computeIfAbsent(term, t -> new int[1])[0] += weight;
+            length += weight;
+        }
+        return length;
+    }
+
+    private static void parse(String query, List<Clause> include, List<String> exclude) {
+        if (query == null) {
+            return;
+        }
+        for (String piece : query.toLowerCase().split("\\s+")) {
+            boolean negated = piece.length() > 1 && piece.charAt(0) == '-';
+            boolean prefix = piece.endsWith("*");
+            List<String> words = tokenize(piece, false);
+            for (int i = 0; i < words.size(); i++) {
+                String word = words.get(i);
+                boolean isPrefix = prefix && i == words.size() - 1 && word.length() >= MIN_PREFIX_LENGTH;
+                if (negated) {
+                    exclude.add(word);
+                } else if (isPrefix || !STOP_WORDS.contains(word)) {
+                    include.add(new Clause(word, isPrefix));
+                }
+            }
+        }
+    }
+
+    /** Lower-cased runs of letters, digits and underscores. */
+    static List<String> tokenize(String text, boolean dropStopWords) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean word = i < text.length()
+                    && (Character.isLetterOrDigit(text.charAt(i)) || text.charAt(i) == '_');
+            if (word && start < 0) {
+                start = i;
+            } else if (!word && start >= 0) {
+                if (i - start <= MAX_TERM_LENGTH) {
+                    String token = text.substring(start, i).toLowerCase();
+                    if (!dropStopWords || !STOP_WORDS.contains(token)) {
+                        tokens.add(token);
+                    }
+                }
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+    private record Clause(String term, boolean prefix) {
+    }
+
+    private static final class Postings {
+        private int[] docs;
+        private int[] freqs;
+        private int size;
+
+        Postings() {
+            this(4);
+        }
+
+        Postings(int capacity) {
+            docs = new int[Math.max(capacity, 1)];
+            freqs = new int[Math.max(capacity, 1)];
+        }
+
+        void add(int ordinal, int frequency) {
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size << 1);
+                freqs = Arrays.copyOf(freqs, size << 1);
+            }
+            docs[size] = ordinal;
+            freqs[size] = frequency;
+            size++;
+        }
+    }
+
+    private static final class Candidates {
+        private final int[] docs;
+        private final float[] scores;
+        private int size;
+
+        Candidates(int capacity) {
+            docs = new int[capacity];
+            scores = new float[capacity];
+        }
+
+        void add(int ordinal, float score) {
+            docs[size] = ordinal;
+            scores[size] = score;
+            size++;
+        }
+    }
+}
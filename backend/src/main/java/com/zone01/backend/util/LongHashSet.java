@@ -0,0 +1,138 @@
+package com.zone01.backend.util;
+
+/**
+ * Open-addressing set of positive long ids backed by a single long[]. Avoids
+ * the boxing and per-entry node overhead of HashSet&lt;Long&gt;. Not
+ * thread-safe.
+ */
+public final class LongHashSet {
+
+    private static final long EMPTY = 0L;
+    private static final int MIN_CAPACITY = 8;
+
+    private long[] keys;
+    private int mask;
+    private int size;
+
+    public LongHashSet() {
+        this(MIN_CAPACITY);
+    }
+
+    public LongHashSet(int expectedSize) {
+        allocate(capacityFor(expectedSize));
+    }
+
+    public boolean add(long key) {
+        checkKey(key);
+        int slot = slot(key);
+        while (keys[slot] != EMPTY) {
+            if (keys[slot] == key) {
+                return false;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        if (++size > threshold()) {
+            rehash(keys.length << 1);
+        }
+        return true;
+    }
+
+    public boolean contains(long key) {
+        if (key == EMPTY) {
+            return false;
+        }
+        int slot = slot(key);
+        while (keys[slot] != EMPTY) {
+            if (keys[slot] == key) {
+                return true;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return false;
+    }
+
+    public boolean remove(long key) {
+        if (key == EMPTY) {
+            return false;
+        }
+        int slot = slot(key);
+        while (keys[slot] != key) {
+            if (keys[slot] == EMPTY) {
+                return false;
+            }
+            slot = (slot + 1) & mask;
+        }
+        // Backward-shift deletion keeps probe chains intact without tombstones
+        int gap = slot;
+        int next = slot;
+        while (true) {
+            next = (next + 1) & mask;
+            long candidate = keys[next];
+            if (candidate == EMPTY) {
+                break;
+            }
+            int home = slot(candidate);
+            boolean movable = gap <= next ? (home <= gap || home > next) : (home <= gap && home > next);
+            if (movable) {
+                keys[gap] = candidate;
+                gap = next;
+            }
+        }
+        keys[gap] = EMPTY;
+        size--;
+        return true;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /** Approximate retained heap size: object header, fields and the key array. */
+    public long memoryBytes() {
+        return 32L + 16L + 8L * keys.length;
+    }
+
+    private void rehash(int capacity) {
+        long[] old = keys;
+        allocate(capacity);
+        for (long key : old) {
+            if (key != EMPTY) {
+                int slot = slot(key);
+                while (keys[slot] != EMPTY) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = key;
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        mask = capacity - 1;
+    }
+
+    private int threshold() {
+        return (keys.length >> 2) * 3;
+    }
+
+    private int slot(long key) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+
+    private static int capacityFor(int expectedSize) {
+        int needed = (int) Math.min(1 << 30, Math.max(MIN_CAPACITY, (long) expectedSize * 4 / 3 + 1));
+        return Integer.highestOneBit(needed - 1) << 1;
+    }
+
+    private static void checkKey(long key) {
+        if (key == EMPTY) {
+            throw new IllegalArgumentException("Key must be non-zero");
+        }
+    }
+}
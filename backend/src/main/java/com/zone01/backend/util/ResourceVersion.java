@@ -0,0 +1,63 @@
+package com.zone01.backend.util;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.HexFormat;
+import java.util.List;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+
+/**
+ * Validators for conditional GETs, computed from the timestamps and counters
+ * a representation is built from so a 304 can be decided before the body
+ * is. Revalidation goes by the ETag alone: like and comment counts change
+ * without moving any timestamp, so {@code lastModified} is only advertised,
+ * and is -1 when there is no timestamp to advertise.
+ */
+public record ResourceVersion(String etag, long lastModified) {
+
+    public static ResourceVersion of(LocalDateTime lastModified, Object... parts) {
+        return new ResourceVersion(etag(parts), lastModified == null
+                ? -1
+                : lastModified.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+    }
+
+    public static LocalDateTime latest(LocalDateTime... times) {
+        LocalDateTime latest = null;
+        for (LocalDateTime time : times) {
+            if (time != null && (latest == null || time.isAfter(latest))) {
+                latest = time;
+            }
+        }
+        return latest;
+    }
+
+    /** Revalidate on every use; bodies can differ per signed-in viewer. */
+    public HttpHeaders headers() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setCacheControl(CacheControl.noCache().cachePrivate());
+        headers.setVary(List.of(HttpHeaders.AUTHORIZATION));
+        if (lastModified >= 0) {
+            headers.setLastModified(lastModified);
+        }
+        return headers;
+    }
+
+    private static String etag(Object... parts) {
+        StringBuilder source = new StringBuilder();
+        for (Object part : parts) {
+            source.append(part).append('|');
+        }
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                    .digest(source.toString().getBytes(StandardCharsets.UTF_8));
+            return "\"" + HexFormat.of().formatHex(digest, 0, 16) + "\"";
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 not available", ex);
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.zone01.backend.benchmark;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.zone01.backend.util.FeedMerger;
+
+/**
+ * Measures the read-time merge of the pushed timeline page with the pulled
+ * pages of followed celebrities.
+ *
+ * Run with: mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.zone01.backend.benchmark.FeedMergerBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FeedMergerBenchmark {
+
+    record Item(Long id, LocalDateTime createdAt) {
+    }
+
+    private static final Comparator<Item> NEWEST_FIRST = Comparator.comparing(Item::createdAt)
+            .thenComparing(Item::id)
+            .reversed();
+
+    @Param({ "1", "10", "100" })
+    public int celebrities;
+
+    @Param({ "21", "101" })
+    public int pageSize;
+
+    private List<List<Item>> sources;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        LocalDateTime now = LocalDateTime.now();
+        long nextId = 1;
+        sources = new ArrayList<>();
+        // Source 0 is the pushed timeline page, the rest are celebrity pulls
+        for (int s = 0; s <= celebrities; s++) {
+            List<Item> source = new ArrayList<>(pageSize);
+            for (int i = 0; i < pageSize; i++) {
+                source.add(new Item(nextId++, now.minusSeconds(random.nextInt(86_400 * 7))));
+            }
+            source.sort(NEWEST_FIRST);
+            sources.add(source);
+        }
+    }
+
+    @Benchmark
+    public List<Item> kWayMerge() {
+        return FeedMerger.merge(sources, NEWEST_FIRST, Item::id, pageSize);
+    }
+
+    @Benchmark
+    public List<Item> concatAndSort() {
+        List<Item> all = new ArrayList<>();
+        sources.forEach(all::addAll);
+        all.sort(NEWEST_FIRST);
+        return all.subList(0, pageSize);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(FeedMergerBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
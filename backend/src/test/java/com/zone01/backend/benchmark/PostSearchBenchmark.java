@@ -0,0 +1,164 @@
+package com.zone01.backend.benchmark;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.zone01.backend.util.InvertedIndex;
+
+/**
+ * Compares the in-process post index with the Postgres tsvector search for
+ * the first page of results over the same synthetic corpus. The SQL side
+ * loads the corpus into a temporary table shaped like posts (generated
+ * search_vector, GIN index), so nothing is written to real tables.
+ *
+ * Needs a reachable Postgres; override -Dbench.jdbc.url, -Dbench.jdbc.user
+ * and -Dbench.jdbc.password if it is not the local development database.
+ *
+ * Run with: mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.zone01.backend.benchmark.PostSearchBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PostSearchBenchmark {
+
+    private static final int PAGE_SIZE = 21;
+    private static final String[] SYLLABLES = { "ka", "lo", "mi", "ren", "tu", "sha", "vo", "bel", "di", "nor",
+            "pa", "qui", "ser", "ton", "ul", "wex", "yar", "zim" };
+
+    @Param({ "10000", "100000" })
+    public int posts;
+
+    @Param({ "frequent", "rare", "frequent rare" })
+    public String shape;
+
+    private InvertedIndex index;
+    private Connection connection;
+    private PreparedStatement sqlSearch;
+    private String query;
+
+    @Setup
+    public void setUp() throws SQLException {
+        Random random = new Random(42);
+        String[] vocabulary = new String[20_000];
+        for (int i = 0; i < vocabulary.length; i++) {
+            StringBuilder word = new StringBuilder();
+            for (int s = 2 + random.nextInt(3); s > 0; s--) {
+                word.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+            }
+            vocabulary[i] = word.toString() + i;
+        }
+        String frequent = vocabulary[3];
+        String rare = vocabulary[vocabulary.length / 4];
+        query = switch (shape) {
+            case "frequent" -> frequent;
+            case "rare" -> rare;
+            default -> frequent + " " + rare;
+        };
+
+        connection = DriverManager.getConnection(
+                System.getProperty("bench.jdbc.url", "jdbc:postgresql://localhost:5432/blogdb"),
+                System.getProperty("bench.jdbc.user", "bloguser"),
+                System.getProperty("bench.jdbc.password", "blogpass"));
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TEMP TABLE bench_posts (id bigint PRIMARY KEY, title varchar(255), "
+                    + "content text, hidden boolean NOT NULL DEFAULT false, search_vector tsvector GENERATED ALWAYS AS ("
+                    + "setweight(to_tsvector('english', coalesce(title, '')), 'A') || "
+                    + "setweight(to_tsvector('english', coalesce(content, '')), 'B')) STORED)");
+        }
+
+        index = new InvertedIndex();
+        try (PreparedStatement insert = connection
+                .prepareStatement("INSERT INTO bench_posts (id, title, content) VALUES (?, ?, ?)")) {
+            for (long id = 1; id <= posts; id++) {
+                String title = words(random, vocabulary, 3 + random.nextInt(6));
+                String content = words(random, vocabulary, 30 + random.nextInt(120));
+                index.put(id, 1, title, content, "user" + (id % 500));
+                insert.setLong(1, id);
+                insert.setString(2, title);
+                insert.setString(3, content);
+                insert.addBatch();
+                if (id % 1000 == 0) {
+                    insert.executeBatch();
+                }
+            }
+            insert.executeBatch();
+        }
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE INDEX ON bench_posts USING GIN (search_vector)");
+            statement.execute("ANALYZE bench_posts");
+        }
+
+        // Same statement as PostRepository.searchVisible
+        sqlSearch = connection.prepareStatement("SELECT p.id AS id, ts_rank_cd(p.search_vector, q) AS rank "
+                + "FROM bench_posts p, websearch_to_tsquery('english', ?) q "
+                + "WHERE p.search_vector @@ q AND p.hidden = false "
+                + "ORDER BY rank DESC, p.id DESC LIMIT ?");
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    @Benchmark
+    public List<InvertedIndex.Hit> inMemoryIndex() {
+        return index.search(query, PAGE_SIZE, null, 0);
+    }
+
+    @Benchmark
+    public List<Long> postgres() throws SQLException {
+        sqlSearch.setString(1, query);
+        sqlSearch.setInt(2, PAGE_SIZE);
+        List<Long> ids = new ArrayList<>(PAGE_SIZE);
+        try (ResultSet rs = sqlSearch.executeQuery()) {
+            while (rs.next()) {
+                ids.add(rs.getLong(1));
+            }
+        }
+        return ids;
+    }
+
+    // Skewed draw so a few words are very common and most are rare, as in real text
+    private static String words(Random random, String[] vocabulary, int count) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            double skew = Math.pow(random.nextDouble(), 3);
+            text.append(vocabulary[(int) (skew * vocabulary.length)]).append(' ');
+        }
+        return text.toString();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(PostSearchBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,70 @@
+package com.zone01.backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.zone01.backend.entity.User;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.transaction.Transactional;
+
+@SpringBootTest(properties = {
+		"spring.jpa.properties.hibernate.generate_statistics=true",
+		"counters.reconcile-initial-delay-ms=3600000" })
+@Transactional
+class NotificationServiceStatementCountTests {
+
+	private static final int RECIPIENTS = 200;
+	private static final int BATCH_SIZE = 50;
+
+	@Autowired
+	private NotificationService notificationService;
+
+	@Autowired
+	private EntityManager entityManager;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Test
+	void reportNotificationsAreInsertedInBatches() {
+		String prefix = "batch" + System.nanoTime() % 1_000_000_000L;
+		User actor = user(prefix + "a");
+		List<User> admins = new ArrayList<>();
+		for (int i = 0; i < RECIPIENTS; i++) {
+			admins.add(user(prefix + "r" + i));
+		}
+		entityManager.flush();
+
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+
+		notificationService.createReportNotification(actor, actor.getId(), "user", admins);
+		entityManager.flush();
+
+		assertEquals(RECIPIENTS, statistics.getEntityInsertCount());
+		// A sequence call per block of ids, at most one more for a block left over from earlier tests,
+		// one insert statement reused for every batch and one unread counter update; without batching
+		// there is an insert per row
+		assertTrue(statistics.getPrepareStatementCount() <= RECIPIENTS / BATCH_SIZE + 3);
+	}
+
+	private User user(String username) {
+		User user = new User();
+		user.setUsername(username);
+		user.setEmail(username + "@example.com");
+		user.setPassword("x");
+		entityManager.persist(user);
+		return user;
+	}
+}
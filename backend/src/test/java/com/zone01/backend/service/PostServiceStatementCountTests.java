@@ -0,0 +1,69 @@
+package com.zone01.backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.zone01.backend.dto.CursorPageDTO;
+import com.zone01.backend.dto.PostSummaryDTO;
+import com.zone01.backend.entity.MediaType;
+import com.zone01.backend.entity.Post;
+import com.zone01.backend.entity.PostMedia;
+import com.zone01.backend.entity.User;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.transaction.Transactional;
+
+@SpringBootTest(properties = {
+		"spring.jpa.properties.hibernate.generate_statistics=true",
+		"counters.reconcile-initial-delay-ms=3600000" })
+@Transactional
+class PostServiceStatementCountTests {
+
+	private static final int PAGE_SIZE = 50;
+
+	@Autowired
+	private PostService postService;
+
+	@Autowired
+	private EntityManager entityManager;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Test
+	void postPageLoadsAuthorsAndMediaWithFixedStatementCount() {
+		User author = new User();
+		author.setUsername("stmt" + System.nanoTime() % 1_000_000_000L);
+		author.setEmail(author.getUsername() + "@example.com");
+		author.setPassword("x");
+		entityManager.persist(author);
+		for (int i = 0; i < PAGE_SIZE; i++) {
+			Post post = new Post();
+			post.setTitle("Post " + i);
+			post.setContent("Content " + i);
+			post.setAuthor(author);
+			for (int m = 0; m < 2; m++) {
+				post.getMedia().add(new PostMedia(null, "/uploads/" + i + "-" + m + ".png", MediaType.IMAGE, post));
+			}
+			entityManager.persist(post);
+		}
+		entityManager.flush();
+		entityManager.clear();
+
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+
+		CursorPageDTO<PostSummaryDTO> page = postService.getAllPostsDTO(null, null, PAGE_SIZE);
+
+		assertEquals(PAGE_SIZE, page.getItems().size());
+		page.getItems().forEach(post -> assertEquals(2, post.getMedia().size()));
+		// One page query with the authors fetched, one query for the media of every post on the page
+		assertEquals(2, statistics.getPrepareStatementCount());
+	}
+}
@@ -0,0 +1,101 @@
+package com.zone01.backend.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class InvertedIndexTests {
+
+	@TempDir
+	Path tempDir;
+
+	private static List<Long> ids(List<InvertedIndex.Hit> hits) {
+		return hits.stream().map(InvertedIndex.Hit::postId).toList();
+	}
+
+	private static InvertedIndex sample() {
+		InvertedIndex index = new InvertedIndex();
+		index.put(1, 1, "Tomato garden", "Growing tomatoes on a balcony", "carol");
+		index.put(2, 1, "Kitchen notes", "A tomato sauce from the garden harvest", "bob");
+		index.put(3, 1, "Bicycle repair", "Fixing gears and brakes", "alice");
+		index.put(4, 1, "Gardening tools", "Which spade to buy", "carol");
+		return index;
+	}
+
+	@Test
+	void ranksTitleMatchesAboveContentMatches() {
+		assertEquals(List.of(1L, 2L), ids(sample().search("tomato garden", 10, null, 0)));
+	}
+
+	@Test
+	void matchesPrefixesUsernamesAndExclusions() {
+		InvertedIndex index = sample();
+		assertEquals(List.of(1L, 2L, 4L), ids(index.search("garden*", 10, null, 0)).stream().sorted().toList());
+		assertEquals(List.of(1L, 4L), ids(index.search("carol", 10, null, 0)).stream().sorted().toList());
+		assertEquals(List.of(1L), ids(index.search("garden -sauce", 10, null, 0)));
+		assertTrue(index.search("the", 10, null, 0).isEmpty());
+	}
+
+	@Test
+	void replacesAndRemovesDocuments() {
+		InvertedIndex index = sample();
+		index.put(3, 2, "Bicycle garden", "Now about plants", "alice");
+		assertEquals(List.of(3L), ids(index.search("bicycle", 10, null, 0)));
+		assertTrue(index.search("gears", 10, null, 0).isEmpty());
+
+		index.remove(1);
+		assertEquals(List.of(2L), ids(index.search("tomato", 10, null, 0)));
+		assertEquals(3, index.size());
+	}
+
+	@Test
+	void pagesWithScoreCursorAcrossCompaction() {
+		InvertedIndex index = new InvertedIndex();
+		for (long id = 1; id <= 3000; id++) {
+			index.put(id, 1, "Post " + id, "common word " + (id % 7 == 0 ? "seven" : ""), "author");
+		}
+		// Enough replacements to trigger tombstone compaction
+		for (long id = 1; id <= 3000; id++) {
+			index.put(id, 2, "Post " + id, "common word " + (id % 7 == 0 ? "seven" : ""), "author");
+		}
+
+		List<Long> seen = new ArrayList<>();
+		List<InvertedIndex.Hit> page = index.search("common", 100, null, 0);
+		while (!page.isEmpty()) {
+			page.forEach(hit -> seen.add(hit.postId()));
+			InvertedIndex.Hit last = page.get(page.size() - 1);
+			page = index.search("common", 100, last.score(), last.postId());
+		}
+		assertEquals(3000, seen.size());
+		assertEquals(3000, seen.stream().distinct().count());
+		assertEquals(428, index.search("seven", 1000, null, 0).size());
+	}
+
+	@Test
+	void snapshotRoundTripsThroughMappedFile() throws IOException {
+		InvertedIndex index = sample();
+		index.remove(3);
+		Path file = tempDir.resolve("posts.idx");
+		index.writeTo(file);
+
+		InvertedIndex loaded = InvertedIndex.readFrom(file);
+		assertEquals(3, loaded.size());
+		assertEquals(1L, loaded.stamp(2));
+		assertEquals(index.search("tomato garden", 10, null, 0), loaded.search("tomato garden", 10, null, 0));
+		assertTrue(loaded.search("bicycle", 10, null, 0).isEmpty());
+
+		byte[] bytes = Files.readAllBytes(file);
+		bytes[bytes.length / 2] ^= 0x7F;
+		Files.write(file, bytes);
+		assertThrows(IOException.class, () -> InvertedIndex.readFrom(file));
+	}
+}
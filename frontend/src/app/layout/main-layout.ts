@@ -56,9 +56,12 @@ export class MainLayout implements OnInit {
     constructor() {
         // Use effect to reload suggestions when user logs in
         effect(() => {
-            if (this.authService.isLoggedIn()) {
+            const token = this.authService.token();
+            if (this.authService.isLoggedIn() && token) {
+                this.inAppNotificationService.connect();
                 this.loadData();
             } else {
+                this.inAppNotificationService.disconnect();
                 this.suggestedUsers.set([]);
                 this.followingUsers.set([]);
             }
@@ -73,8 +76,6 @@ export class MainLayout implements OnInit {
         const currentUser = this.authService.currentUser();
         if (!currentUser) return;
 
-        this.inAppNotificationService.refreshUnreadCount();
-
         // Load Subscriptions (Following)
         this.userService.getMySubscriptions().subscribe(subs => {
             const followedIds = new Set(subs.map((s: any) => s.targetId));
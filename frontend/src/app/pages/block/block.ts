@@ -75,6 +75,7 @@ export class Block implements OnInit {
     readonly loading = signal(false);
     readonly profileUser = signal<UserDTO | null>(null);
     readonly userPosts = signal<PostDTO[]>([]);
+    readonly nextCursor = signal<string | null>(null);
     readonly followersCount = signal(0);
     readonly followingCount = signal(0);
     readonly isFollowing = signal(false);
@@ -158,6 +159,26 @@ export class Block implements OnInit {
         });
     }
 
+    loadMorePosts() {
+        const cursor = this.nextCursor();
+        const username = this.profileUser()?.username;
+        if (!cursor || !username || this.loading()) {
+            return;
+        }
+        this.loading.set(true);
+        this.postService.getPostsByUsername(username, cursor).subscribe({
+            next: (page) => {
+                this.userPosts.update(posts => [...posts, ...page.items]);
+                this.nextCursor.set(page.nextCursor);
+                this.loading.set(false);
+            },
+            error: (err) => {
+                this.notificationService.error(err.error?.message || err.error?.error || 'Failed to load posts');
+                this.loading.set(false);
+            }
+        });
+    }
+
     loadUserData(username: string) {
         this.loading.set(true);
         forkJoin({
@@ -165,7 +186,8 @@ export class Block implements OnInit {
             followerCount: this.userService.getFollowerCount(username)
         }).subscribe({
             next: ({ posts, followerCount }) => {
-                this.userPosts.set(posts);
+                this.userPosts.set(posts.items);
+                this.nextCursor.set(posts.nextCursor);
                 this.followersCount.set(followerCount.count);
                 this.loading.set(false);
             },
@@ -456,10 +478,21 @@ export class Block implements OnInit {
         }
     }
 
+    onReadMore(post: any) {
+        this.postService.getPostById(post.id).subscribe({
+            next: (full) => this.userPosts.update(posts => posts.map(p => p.id === post.id ? { ...p, content: full.content } : p)),
+            error: (err) => this.notificationService.error(err.error?.message || err.error?.error || 'Failed to load post')
+        });
+    }
+
     onEditPost(post: any) {
         this.editingPostId.set(post.id);
         this.editPostTitle.set(post.title || '');
-        this.editPostContent.set(post.content || '');
+        this.editPostContent.set(post.content ?? post.excerpt ?? '');
+        if (post.content === undefined && post.truncated) {
+            // Lists only carry the excerpt; edit the full body
+            this.postService.getPostById(post.id).subscribe(full => this.editPostContent.set(full.content || ''));
+        }
         this.editPostFiles.set([]);
         this.editPostFilesPreview.set([]);
         this.existingMediaUrls.set(post.media ? post.media.map((m: any) => m.mediaUrl) : []);
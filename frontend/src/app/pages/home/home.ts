@@ -76,6 +76,7 @@ export class Home implements OnInit {
 
     readonly posts = signal<any[]>([]);
     readonly loading = signal(false);
+    readonly nextCursor = signal<string | null>(null);
 
     // Editing states
     readonly editingPostId = signal<number | null>(null);
@@ -116,8 +117,9 @@ export class Home implements OnInit {
     loadFeed() {
         this.loading.set(true);
         this.postService.getFeedPosts().subscribe({
-            next: (posts) => {
-                this.posts.set(posts);
+            next: (page) => {
+                this.posts.set(page.items);
+                this.nextCursor.set(page.nextCursor);
                 this.loading.set(false);
 
                 // Check for postId in query params to scroll to it
@@ -139,6 +141,22 @@ export class Home implements OnInit {
         });
     }
 
+    loadMore() {
+        const cursor = this.nextCursor();
+        if (!cursor || this.loading()) {
+            return;
+        }
+        this.loading.set(true);
+        this.postService.getFeedPosts(cursor).subscribe({
+            next: (page) => {
+                this.posts.update(posts => [...posts, ...page.items]);
+                this.nextCursor.set(page.nextCursor);
+                this.loading.set(false);
+            },
+            error: () => this.loading.set(false)
+        });
+    }
+
     private requireLogin(): boolean {
         if (!this.authService.isLoggedIn()) {
             this.router.navigate(['/login']);
@@ -265,10 +283,21 @@ export class Home implements OnInit {
         }
     }
 
+    onReadMore(post: any) {
+        this.postService.getPostById(post.id).subscribe({
+            next: (full) => this.posts.update(posts => posts.map(p => p.id === post.id ? { ...p, content: full.content } : p)),
+            error: (err) => this.notificationService.error(err.error?.message || err.error?.error || 'Failed to load post')
+        });
+    }
+
     onEditPost(post: any) {
         this.editingPostId.set(post.id);
         this.editPostTitle.set(post.title || '');
-        this.editPostContent.set(post.content || '');
+        this.editPostContent.set(post.content ?? post.excerpt ?? '');
+        if (post.content === undefined && post.truncated) {
+            // Lists only carry the excerpt; edit the full body
+            this.postService.getPostById(post.id).subscribe(full => this.editPostContent.set(full.content || ''));
+        }
         this.editPostFiles.set([]);
         this.editPostFilesPreview.set([]);
         this.existingMediaUrls.set(post.media ? post.media.map((m: any) => m.mediaUrl) : []);
@@ -1,4 +1,5 @@
-import { Component, inject, signal, OnInit } from '@angular/core';
+import { Component, DestroyRef, inject, signal, OnInit } from '@angular/core';
+import { takeUntilDestroyed } from '@angular/core/rxjs-interop';
 import { CommonModule } from '@angular/common';
 import { MatListModule } from '@angular/material/list';
 import { MatIconModule } from '@angular/material/icon';
@@ -30,18 +31,46 @@ export class Notifications implements OnInit {
   router = inject(Router);
 
   notifications = signal<NotificationDTO[]>([]);
+  nextCursor = signal<string | null>(null);
+  loading = signal(false);
+
+  private destroyRef = inject(DestroyRef);
 
   ngOnInit(): void {
     this.loadNotifications();
+    this.notificationService.incoming.pipe(takeUntilDestroyed(this.destroyRef)).subscribe(notification => {
+      // An aggregate that gained an actor moves to the top, as the server orders it
+      this.notifications.update(list => [notification, ...list.filter(existing => existing.id !== notification.id)]);
+    });
+    this.notificationService.resync.pipe(takeUntilDestroyed(this.destroyRef)).subscribe(() => this.loadNotifications());
   }
 
   loadNotifications(): void {
-    this.notificationService.getNotifications().subscribe(notifications => {
-      this.notifications.set(notifications);
+    this.notificationService.getNotifications().subscribe(page => {
+      this.notifications.set(page.items);
+      this.nextCursor.set(page.nextCursor);
       this.notificationService.refreshUnreadCount();
     });
   }
 
+  loadMore(): void {
+    const cursor = this.nextCursor();
+    if (!cursor || this.loading()) {
+      return;
+    }
+    this.loading.set(true);
+    this.notificationService.getNotifications(cursor).subscribe({
+      next: page => {
+        // Live notifications may already have pushed some of these onto the list
+        const shown = new Set(this.notifications().map(existing => existing.id));
+        this.notifications.update(list => [...list, ...page.items.filter(item => !shown.has(item.id))]);
+        this.nextCursor.set(page.nextCursor);
+        this.loading.set(false);
+      },
+      error: () => this.loading.set(false)
+    });
+  }
+
   markAllAsRead(): void {
     this.notificationService.markAllAsRead().subscribe(() => {
       this.loadNotifications();
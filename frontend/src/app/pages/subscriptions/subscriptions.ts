@@ -58,6 +58,7 @@ export class Subscriptions implements OnInit {
 
   readonly posts = signal<PostDTO[]>([]);
   readonly loading = signal(false);
+  readonly nextCursor = signal<string | null>(null);
   readonly showComments = signal<Set<number>>(new Set());
   readonly commentInputs = signal<Map<number, string>>(new Map());
 
@@ -90,8 +91,28 @@ export class Subscriptions implements OnInit {
     this.loading.set(true);
 
     this.postService.getFeedPosts().subscribe({
-      next: (posts) => {
-        this.posts.set(posts);
+      next: (page) => {
+        this.posts.set(page.items);
+        this.nextCursor.set(page.nextCursor);
+        this.loading.set(false);
+      },
+      error: (err) => {
+        this.notificationService.error(err.error?.message || err.error?.error || 'Failed to load posts');
+        this.loading.set(false);
+      }
+    });
+  }
+
+  loadMore() {
+    const cursor = this.nextCursor();
+    if (!cursor || this.loading()) {
+      return;
+    }
+    this.loading.set(true);
+    this.postService.getFeedPosts(cursor).subscribe({
+      next: (page) => {
+        this.posts.update(posts => [...posts, ...page.items]);
+        this.nextCursor.set(page.nextCursor);
         this.loading.set(false);
       },
       error: (err) => {
@@ -164,10 +185,21 @@ export class Subscriptions implements OnInit {
     }
   }
 
+  onReadMore(post: any) {
+    this.postService.getPostById(post.id).subscribe({
+      next: (full) => this.posts.update(posts => posts.map(p => p.id === post.id ? { ...p, content: full.content } : p)),
+      error: (err) => this.notificationService.error(err.error?.message || err.error?.error || 'Failed to load post')
+    });
+  }
+
   onEditPost(post: any) {
     this.editingPostId.set(post.id);
     this.editPostTitle.set(post.title || '');
-    this.editPostContent.set(post.content || '');
+    this.editPostContent.set(post.content ?? post.excerpt ?? '');
+    if (post.content === undefined && post.truncated) {
+      // Lists only carry the excerpt; edit the full body
+      this.postService.getPostById(post.id).subscribe(full => this.editPostContent.set(full.content || ''));
+    }
     this.editPostFiles.set([]);
     this.editPostFilesPreview.set([]);
     this.existingMediaUrls.set(post.media ? post.media.map((m: any) => m.mediaUrl) : []);
@@ -1,6 +1,7 @@
 import { Injectable, inject, signal } from '@angular/core';
 import { HttpClient } from '@angular/common/http';
-import { Observable, tap } from 'rxjs';
+import { Observable, Subject, tap } from 'rxjs';
+import { CursorPage } from './post.service';
 
 export interface NotificationDTO {
   id: number;
@@ -13,17 +14,101 @@ export interface NotificationDTO {
   actorAvatarUrl?: string;
   targetId?: number;
   createdAt: string;
+  // Moves forward when an aggregate gains an actor; the inbox is ordered by it
+  lastActivityAt: string;
+  // Likes and follows close together are folded into one notification
+  actorCount: number;
+  recentActors: string[];
 }
 
 @Injectable({ providedIn: 'root' })
 export class InAppNotificationService {
   private http = inject(HttpClient);
   private baseUrl = 'http://localhost:8080/api/notifications';
+  private stream: EventSource | null = null;
+  // Bumped on every connect and disconnect, so stale tickets and retries are dropped
+  private generation = 0;
+  private lastEventId: string | null = null;
+  private retryMs = 1000;
+  // Resumed streams may repeat a few notifications; an aggregate is pushed again for each new actor
+  private seenIds = new Set<string>();
 
   unreadCount = signal<number>(0);
+  // Notifications pushed by the server as they are created or gain actors
+  readonly incoming = new Subject<NotificationDTO>();
+  // Emitted when pushed notifications were missed and the list must be reloaded
+  readonly resync = new Subject<void>();
 
-  getNotifications(): Observable<NotificationDTO[]> {
-    return this.http.get<NotificationDTO[]>(this.baseUrl);
+  connect(): void {
+    this.disconnect();
+    this.open(this.generation);
+  }
+
+  // The stream is opened with a single-use ticket, so the browser cannot reconnect on its own; a new
+  // stream is opened instead, resuming from the last event received
+  private open(generation: number): void {
+    this.http.post<{ ticket: string }>(`${this.baseUrl}/stream/ticket`, {}).subscribe({
+      next: ({ ticket }) => {
+        if (generation !== this.generation) return;
+        const params = new URLSearchParams({ ticket });
+        if (this.lastEventId) params.set('lastEventId', this.lastEventId);
+        this.listen(new EventSource(`${this.baseUrl}/stream?${params}`), generation);
+      },
+      error: () => this.retry(generation)
+    });
+  }
+
+  private retry(generation: number): void {
+    if (generation !== this.generation) return;
+    const delay = this.retryMs;
+    this.retryMs = Math.min(this.retryMs * 2, 60000);
+    setTimeout(() => {
+      if (generation === this.generation) this.open(generation);
+    }, delay);
+  }
+
+  private listen(stream: EventSource, generation: number): void {
+    stream.addEventListener('unread', event => {
+      this.retryMs = 1000;
+      this.unreadCount.set(JSON.parse((event as MessageEvent).data).count);
+    });
+    stream.addEventListener('notification', event => {
+      this.lastEventId = (event as MessageEvent).lastEventId || this.lastEventId;
+      const notification: NotificationDTO = JSON.parse((event as MessageEvent).data);
+      const key = `${notification.id}:${notification.actorCount}`;
+      if (this.seenIds.has(key)) return;
+      if (this.seenIds.size > 1000) this.seenIds.clear();
+      this.seenIds.add(key);
+      // Only unread aggregates gain actors, and those were counted when first pushed
+      if (notification.actorCount === 1 && !notification.read) {
+        this.unreadCount.update(count => count + 1);
+      }
+      this.incoming.next(notification);
+    });
+    stream.addEventListener('resync', () => {
+      this.refreshUnreadCount();
+      this.resync.next();
+    });
+    stream.onerror = () => {
+      stream.close();
+      if (this.stream === stream) this.stream = null;
+      this.retry(generation);
+    };
+    this.stream = stream;
+  }
+
+  disconnect(): void {
+    this.generation++;
+    this.stream?.close();
+    this.stream = null;
+    this.lastEventId = null;
+    this.retryMs = 1000;
+    this.seenIds.clear();
+  }
+
+  getNotifications(cursor?: string | null): Observable<CursorPage<NotificationDTO>> {
+    const params: Record<string, string> = cursor ? { cursor } : {};
+    return this.http.get<CursorPage<NotificationDTO>>(this.baseUrl, { params });
   }
 
   markAsRead(notificationId: number): Observable<NotificationDTO> {
@@ -34,6 +119,10 @@ export class InAppNotificationService {
     return this.http.patch<NotificationDTO>(`${this.baseUrl}/${notificationId}/unread`, {});
   }
 
+  markManyAsRead(ids: number[]): Observable<{ updated: number }> {
+    return this.http.post<{ updated: number }>(`${this.baseUrl}/read`, { ids });
+  }
+
   markAllAsRead(): Observable<any> {
     return this.http.post(`${this.baseUrl}/read-all`, {});
   }
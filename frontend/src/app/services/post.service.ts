@@ -11,7 +11,10 @@ export interface PostMediaDTO {
 export interface PostDTO {
   id: number;
   title: string;
-  content: string;
+  // Full body; list endpoints send only the excerpt until the post is expanded
+  content?: string;
+  excerpt?: string;
+  truncated?: boolean;
   media: PostMediaDTO[];
   createdAt: string;
   authorId: number;
@@ -25,6 +28,11 @@ export interface PostDTO {
   hidden?: boolean;
 }
 
+export interface CursorPage<T> {
+  items: T[];
+  nextCursor: string | null;
+}
+
 @Injectable({ providedIn: 'root' })
 export class PostService {
   private baseUrl = 'http://localhost:8080/api/posts';
@@ -32,20 +40,27 @@ export class PostService {
 
   constructor(private http: HttpClient) { }
 
-  getAllPosts(): Observable<PostDTO[]> {
-    return this.http.get<PostDTO[]>(this.baseUrl);
+  getAllPosts(cursor?: string | null): Observable<CursorPage<PostDTO>> {
+    const params: Record<string, string> = cursor ? { cursor } : {};
+    return this.http.get<CursorPage<PostDTO>>(this.baseUrl, { params });
   }
 
-  getFeedPosts(): Observable<PostDTO[]> {
-    return this.http.get<PostDTO[]>(`${this.baseUrl}/feed`);
+  getFeedPosts(cursor?: string | null): Observable<CursorPage<PostDTO>> {
+    const params: Record<string, string> = cursor ? { cursor } : {};
+    return this.http.get<CursorPage<PostDTO>>(`${this.baseUrl}/feed`, { params });
   }
 
   createPost(formData: FormData): Observable<PostDTO> {
     return this.http.post<PostDTO>(this.baseUrl, formData);
   }
 
-  getPostsByUsername(username: string): Observable<PostDTO[]> {
-    return this.http.get<PostDTO[]>(`${this.baseUrl}/user/${username}`);
+  getPostById(postId: number): Observable<PostDTO> {
+    return this.http.get<PostDTO>(`${this.baseUrl}/${postId}`);
+  }
+
+  getPostsByUsername(username: string, cursor?: string | null): Observable<CursorPage<PostDTO>> {
+    const params: Record<string, string> = cursor ? { cursor } : {};
+    return this.http.get<CursorPage<PostDTO>>(`${this.baseUrl}/user/${username}`, { params });
   }
 
   likePost(postId: number): Observable<any> {